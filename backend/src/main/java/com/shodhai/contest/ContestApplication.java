@@ -1,9 +1,9 @@
 package com.shodhai.contest;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication
-@EnableAsync
+@EnableScheduling
 public class ContestApplication {
     public static void main(String[] args) {
         SpringApplication.run(ContestApplication.class, args);
@@ -0,0 +1,146 @@
+package com.shodhai.contest.cache;
+
+import com.shodhai.contest.sandbox.WorkDirectories;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Compiler output on local disk, keyed by language and source hash, so identical code is compiled once. Entries are
+ * directories under {@code judge.cache.artifacts.root}, evicted least recently used once their total size exceeds
+ * {@code judge.cache.artifacts.max-bytes}. The directory is emptied on startup.
+ */
+@Component
+@Slf4j
+public class ArtifactCache {
+
+    private final Path root;
+    private final long maxBytes;
+    private final Map<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ArtifactCache(@Value("${judge.cache.artifacts.root:/tmp/shodh-artifacts}") String root,
+                         @Value("${judge.cache.artifacts.max-bytes:268435456}") long maxBytes) {
+        this.root = Paths.get(root);
+        this.maxBytes = maxBytes;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(root);
+        WorkDirectories.clean(root);
+    }
+
+    /**
+     * Copies the cached artifacts for the source into the work directory. Returns false if there are none.
+     */
+    public boolean restore(String language, String sourceHash, Path workDir) {
+        String key = key(language, sourceHash);
+        boolean present;
+        synchronized (sizes) {
+            present = sizes.containsKey(key);
+        }
+        if (present) {
+            try (Stream<Path> files = Files.list(root.resolve(key))) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.copy(file, workDir.resolve(file.getFileName()), StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+                }
+                hits.increment();
+                return true;
+            } catch (IOException e) {
+                // evicted while copying; compiling again is always safe
+                log.debug("Could not restore artifacts {}: {}", key, e.getMessage());
+            }
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Stores the files a successful compile left in the work directory, apart from the given inputs.
+     */
+    public void store(String language, String sourceHash, Path workDir, Set<String> inputs) {
+        String key = key(language, sourceHash);
+        synchronized (sizes) {
+            if (sizes.containsKey(key)) {
+                return;
+            }
+        }
+        Path staging = root.resolve("tmp-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(staging);
+            long bytes = 0;
+            try (Stream<Path> files = Files.list(workDir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (Files.isRegularFile(file) && !inputs.contains(file.getFileName().toString())) {
+                        Files.copy(file, staging.resolve(file.getFileName()), StandardCopyOption.COPY_ATTRIBUTES);
+                        bytes += Files.size(file);
+                    }
+                }
+            }
+            if (bytes == 0 || bytes > maxBytes) {
+                delete(staging);
+                return;
+            }
+            Files.move(staging, root.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+            stores.increment();
+            List<String> evicted = new ArrayList<>();
+            synchronized (sizes) {
+                sizes.put(key, bytes);
+                totalBytes += bytes;
+                Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+                while (totalBytes > maxBytes && eldest.hasNext()) {
+                    Map.Entry<String, Long> entry = eldest.next();
+                    totalBytes -= entry.getValue();
+                    evicted.add(entry.getKey());
+                    eldest.remove();
+                }
+            }
+            evictions.add(evicted.size());
+            evicted.forEach(name -> delete(root.resolve(name)));
+        } catch (IOException e) {
+            // another judging of the same source stored it first, or the disk is full; either way judging goes on
+            log.debug("Could not store artifacts {}: {}", key, e.getMessage());
+            delete(staging);
+        }
+    }
+
+    public CacheStats stats() {
+        synchronized (sizes) {
+            return new CacheStats("artifacts", sizes.size(), -1, hits.sum(), misses.sum(), stores.sum(), evictions.sum(), totalBytes, maxBytes);
+        }
+    }
+
+    private static String key(String language, String sourceHash) {
+        return language.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "_") + "-" + sourceHash;
+    }
+
+    private static void delete(Path directory) {
+        WorkDirectories.clean(directory);
+        try {
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            log.warn("Failed to delete: {}", directory);
+        }
+    }
+}
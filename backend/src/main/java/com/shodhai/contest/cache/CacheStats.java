@@ -0,0 +1,18 @@
+package com.shodhai.contest.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CacheStats {
+    private String name;
+    private int size;
+    private int maxEntries;
+    private long hits;
+    private long misses;
+    private long loads;
+    private long evictions;
+    private Long bytes;
+    private Long maxBytes;
+}
@@ -0,0 +1,50 @@
+package com.shodhai.contest.cache;
+
+import com.shodhai.contest.entity.Problem;
+import com.shodhai.contest.entity.TestCase;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 fingerprints that decide when two judgings are interchangeable.
+ */
+public final class Fingerprints {
+
+    private Fingerprints() {
+    }
+
+    /**
+     * Hashes source code with line endings unified and trailing whitespace at the end of the file removed. Spaces
+     * within lines are kept, since inside string literals they change what the program prints.
+     */
+    public static String source(String code) {
+        return sha256(code.replace("\r\n", "\n").replace('\r', '\n').stripTrailing());
+    }
+
+    /**
+     * Hashes everything a verdict depends on besides the code: the tests in order, the limits and the checker.
+     * Test data is content-addressed, so editing a test changes its hash and with it the fingerprint.
+     */
+    public static String testSet(Problem problem, List<TestCase> testCases, int timeLimitMs, int memoryLimitMb) {
+        StringBuilder text = new StringBuilder();
+        text.append(timeLimitMs).append('|').append(memoryLimitMb).append('|')
+            .append(problem.getCheckerMode()).append('|').append(problem.getFloatTolerance()).append('|')
+            .append(problem.getCustomChecker());
+        for (TestCase testCase : testCases) {
+            text.append('\n').append(testCase.getId()).append(' ').append(testCase.getInputHash()).append(' ')
+                .append(testCase.getExpectedOutputHash());
+        }
+        return sha256(text.toString());
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.shodhai.contest.cache;
+
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.service.TestRunResult;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU of finished judgings, so an identical resubmission against an unchanged test set gets its verdict
+ * and per-test results without touching a sandbox.
+ */
+@Component
+public class VerdictCache {
+
+    // time and memory verdicts depend on machine load, so a resubmission deserves a fresh run; the judge also skips
+    // compilation errors from a timed out or killed compiler
+    private static final Set<SubmissionStatus> CACHEABLE = EnumSet.of(SubmissionStatus.ACCEPTED, SubmissionStatus.WRONG_ANSWER,
+        SubmissionStatus.COMPILATION_ERROR);
+
+    private final int maxEntries;
+    private final Map<Key, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerdictCache(@Value("${judge.cache.verdicts.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                boolean evict = size() > VerdictCache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public Entry get(Key key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        (entry != null ? hits : misses).increment();
+        return entry;
+    }
+
+    public void put(Key key, Entry entry) {
+        if (!CACHEABLE.contains(entry.getStatus())) {
+            return;
+        }
+        stores.increment();
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void invalidateProblem(String problemId) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.problemId().equals(problemId));
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats("verdicts", size, maxEntries, hits.sum(), misses.sum(), stores.sum(), evictions.sum(), null, null);
+    }
+
+    public record Key(String problemId, String language, String sourceHash, String testSetHash, boolean sampleOnly) {
+    }
+
+    @Data
+    public static class Entry {
+        private final SubmissionStatus status;
+        private final String verdict;
+        private final String output;
+        private final Integer executionTime;
+        private final Integer memoryUsed;
+        private final List<TestRunResult> results;
+    }
+}
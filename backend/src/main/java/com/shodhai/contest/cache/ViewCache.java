@@ -0,0 +1,126 @@
+package com.shodhai.contest.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded LRU read-through cache. Concurrent misses on the same key share one load. Each entry remembers the
+ * version of its key when the load started; invalidating a key bumps that version, so a load that raced with an
+ * invalidation is returned to its callers but never stored.
+ */
+public class ViewCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final Map<K, V> entries;
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final Map<K, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong invalidateAllCount = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ViewCache(String name, int maxEntries) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                boolean evict = size() > ViewCache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            cached = lookup(key);
+            if (cached == null) {
+                long version = versionOf(key);
+                loads.increment();
+                cached = loader.apply(key);
+                store(key, version, cached);
+            }
+            load.complete(cached);
+            return cached;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    public void invalidate(K key) {
+        versions.merge(key, 1L, Long::sum);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidateAllCount.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(name, size, maxEntries, hits.sum(), misses.sum(), loads.sum(), evictions.sum(), null, null);
+    }
+
+    private V lookup(K key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private long versionOf(K key) {
+        return versions.getOrDefault(key, 0L) + invalidateAllCount.get();
+    }
+
+    private void store(K key, long version, V value) {
+        synchronized (entries) {
+            if (versionOf(key) == version) {
+                entries.put(key, value);
+            }
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.shodhai.contest.cache;
+
+import com.shodhai.contest.entity.Contest;
+import com.shodhai.contest.entity.Problem;
+import com.shodhai.contest.entity.TestCase;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that evicts the cached views an entity change affects. Views are evicted at flush and again
+ * after commit, so a reader that reloaded the old rows in between cannot keep them cached. Cached verdicts of a
+ * changed problem are dropped too; their keys already include the test set, so this only frees the space early.
+ */
+@Component
+@RequiredArgsConstructor
+public class ViewCacheInvalidator {
+
+    private final ViewCaches viewCaches;
+    private final VerdictCache verdictCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Runnable evict = evictionFor(entity);
+        if (evict == null) {
+            return;
+        }
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private Runnable evictionFor(Object entity) {
+        if (entity instanceof Contest contest) {
+            return () -> viewCaches.contests().invalidate(contest.getId());
+        }
+        if (entity instanceof Problem problem) {
+            String contestId = problem.getContest() == null ? null : problem.getContest().getId();
+            return () -> {
+                viewCaches.problems().invalidate(problem.getId());
+                verdictCache.invalidateProblem(problem.getId());
+                if (contestId != null) {
+                    viewCaches.contests().invalidate(contestId);
+                }
+            };
+        }
+        if (entity instanceof TestCase testCase && testCase.getProblem() != null) {
+            String problemId = testCase.getProblem().getId();
+            return () -> {
+                viewCaches.problems().invalidate(problemId);
+                verdictCache.invalidateProblem(problemId);
+            };
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.shodhai.contest.cache;
+
+import com.shodhai.contest.dto.ContestResponse;
+import com.shodhai.contest.dto.ProblemResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+/**
+ * Caches of the contest and problem views served to participants, which rarely change during a contest.
+ */
+@Component
+public class ViewCaches {
+
+    private final ViewCache<String, ContestResponse> contests;
+    private final ViewCache<String, ProblemResponse> problems;
+
+    public ViewCaches(@Value("${cache.views.max-contests:64}") int maxContests,
+                      @Value("${cache.views.max-problems:512}") int maxProblems) {
+        this.contests = new ViewCache<>("contests", maxContests);
+        this.problems = new ViewCache<>("problems", maxProblems);
+    }
+
+    public ViewCache<String, ContestResponse> contests() {
+        return contests;
+    }
+
+    public ViewCache<String, ProblemResponse> problems() {
+        return problems;
+    }
+
+    public List<CacheStats> stats() {
+        return List.of(contests.stats(), problems.stats());
+    }
+}
@@ -0,0 +1,110 @@
+package com.shodhai.contest.checker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Buffered byte and token reader over a file channel. The caller supplies the buffer so checkers can reuse pooled
+ * buffers instead of allocating for every test.
+ */
+final class ByteReader implements Closeable {
+
+    static final int EOF = -1;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] token = new byte[64];
+    private int tokenLength;
+    private long tokenIndex;
+    private long line = 1;
+
+    ByteReader(Path path, ByteBuffer buffer) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = buffer;
+        buffer.clear().flip();
+    }
+
+    int read() throws IOException {
+        while (!buffer.hasRemaining()) {
+            buffer.clear();
+            int read = channel.read(buffer);
+            buffer.flip();
+            if (read < 0) {
+                return EOF;
+            }
+        }
+        int b = buffer.get() & 0xff;
+        if (b == '\n') {
+            line++;
+        }
+        return b;
+    }
+
+    int skipWhitespace() throws IOException {
+        int b;
+        do {
+            b = read();
+        } while (b != EOF && isWhitespace(b));
+        return b;
+    }
+
+    boolean restIsWhitespace(int current) throws IOException {
+        return current == EOF || (isWhitespace(current) && skipWhitespace() == EOF);
+    }
+
+    /**
+     * Reads the next whitespace-separated token, returning false at end of input.
+     */
+    boolean nextToken() throws IOException {
+        int b = skipWhitespace();
+        if (b == EOF) {
+            return false;
+        }
+        tokenLength = 0;
+        while (b != EOF && !isWhitespace(b)) {
+            if (tokenLength == token.length) {
+                token = Arrays.copyOf(token, token.length * 2);
+            }
+            token[tokenLength++] = (byte) b;
+            b = read();
+        }
+        tokenIndex++;
+        return true;
+    }
+
+    boolean tokenEquals(ByteReader other) {
+        return Arrays.equals(token, 0, tokenLength, other.token, 0, other.tokenLength);
+    }
+
+    String tokenText(int maxLength) {
+        String text = new String(token, 0, Math.min(tokenLength, maxLength), StandardCharsets.UTF_8);
+        return tokenLength > maxLength ? text + "..." : text;
+    }
+
+    double tokenAsDouble() {
+        return Double.parseDouble(new String(token, 0, tokenLength, StandardCharsets.US_ASCII));
+    }
+
+    long getTokenIndex() {
+        return tokenIndex;
+    }
+
+    long getLine() {
+        return line;
+    }
+
+    static boolean isWhitespace(int b) {
+        return b <= ' ';
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,22 @@
+package com.shodhai.contest.checker;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CheckResult {
+
+    private static final CheckResult ACCEPTED = new CheckResult(true, null);
+
+    private boolean accepted;
+    private String message;
+
+    public static CheckResult accepted() {
+        return ACCEPTED;
+    }
+
+    public static CheckResult rejected(String message) {
+        return new CheckResult(false, message);
+    }
+}
@@ -0,0 +1,36 @@
+package com.shodhai.contest.checker;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool of read buffer pairs for the checkers. Judgings may run on short-lived virtual threads, so buffers are
+ * pooled rather than kept per thread; the pool keeps at most {@code MAX_IDLE_PAIRS} pairs of direct memory, and
+ * pairs returned beyond that are left to the garbage collector.
+ */
+final class CheckerBuffers {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_IDLE_PAIRS = 16;
+
+    private static final BlockingQueue<ByteBuffer[]> IDLE = new ArrayBlockingQueue<>(MAX_IDLE_PAIRS);
+
+    private CheckerBuffers() {
+    }
+
+    /**
+     * Two read buffers (expected, actual) for the caller's exclusive use until {@link #release}.
+     */
+    static ByteBuffer[] borrow() {
+        ByteBuffer[] buffers = IDLE.poll();
+        if (buffers != null) {
+            return buffers;
+        }
+        return new ByteBuffer[] {ByteBuffer.allocateDirect(BUFFER_SIZE), ByteBuffer.allocateDirect(BUFFER_SIZE)};
+    }
+
+    static void release(ByteBuffer[] buffers) {
+        IDLE.offer(buffers);
+    }
+}
@@ -0,0 +1,37 @@
+package com.shodhai.contest.checker;
+
+import com.shodhai.contest.entity.CheckerMode;
+import com.shodhai.contest.entity.Problem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class CheckerRegistry {
+
+    private static final double DEFAULT_FLOAT_TOLERANCE = 1e-6;
+
+    private static final OutputChecker EXACT = new ExactChecker();
+    private static final OutputChecker WHITESPACE_INSENSITIVE = new TokenChecker(null);
+
+    private final Map<String, OutputChecker> customCheckers;
+
+    public OutputChecker forProblem(Problem problem) {
+        CheckerMode mode = problem.getCheckerMode() == null ? CheckerMode.EXACT : problem.getCheckerMode();
+        switch (mode) {
+            case WHITESPACE_INSENSITIVE:
+                return WHITESPACE_INSENSITIVE;
+            case FLOAT_TOLERANCE:
+                return new TokenChecker(problem.getFloatTolerance() == null ? DEFAULT_FLOAT_TOLERANCE : problem.getFloatTolerance());
+            case CUSTOM:
+                OutputChecker checker = customCheckers.get(problem.getCustomChecker());
+                if (checker == null) {
+                    throw new IllegalStateException("Unknown custom checker '" + problem.getCustomChecker() + "' for problem " + problem.getId());
+                }
+                return checker;
+            default:
+                return EXACT;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.shodhai.contest.checker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Byte-for-byte comparison that only forgives leading and trailing whitespace of the whole output.
+ */
+public class ExactChecker implements OutputChecker {
+
+    @Override
+    public CheckResult check(Path input, Path expected, Path actual) throws IOException {
+        ByteBuffer[] buffers = CheckerBuffers.borrow();
+        try (ByteReader want = new ByteReader(expected, buffers[0]); ByteReader got = new ByteReader(actual, buffers[1])) {
+            int a = want.skipWhitespace();
+            int b = got.skipWhitespace();
+            while (a == b) {
+                if (a == ByteReader.EOF) {
+                    return CheckResult.accepted();
+                }
+                a = want.read();
+                b = got.read();
+            }
+            long line = got.getLine();
+            if (want.restIsWhitespace(a) && got.restIsWhitespace(b)) {
+                return CheckResult.accepted();
+            }
+            return CheckResult.rejected("Output differs from the expected output on line " + line);
+        } finally {
+            CheckerBuffers.release(buffers);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.shodhai.contest.checker;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Decides whether a program's output is correct. Custom checkers are Spring beans implementing this interface and
+ * are selected by bean name through {@code Problem.customChecker}.
+ */
+public interface OutputChecker {
+
+    CheckResult check(Path input, Path expected, Path actual) throws IOException;
+}
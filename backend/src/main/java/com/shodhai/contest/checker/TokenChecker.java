@@ -0,0 +1,63 @@
+package com.shodhai.contest.checker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Compares whitespace-separated tokens. With a tolerance, tokens that both parse as numbers match when they differ
+ * by at most the tolerance, absolute or relative.
+ */
+public class TokenChecker implements OutputChecker {
+
+    private static final int MAX_SHOWN_TOKEN_LENGTH = 64;
+
+    private final Double tolerance;
+
+    public TokenChecker(Double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public CheckResult check(Path input, Path expected, Path actual) throws IOException {
+        ByteBuffer[] buffers = CheckerBuffers.borrow();
+        try (ByteReader want = new ByteReader(expected, buffers[0]); ByteReader got = new ByteReader(actual, buffers[1])) {
+            while (true) {
+                boolean hasWant = want.nextToken();
+                boolean hasGot = got.nextToken();
+                if (!hasWant && !hasGot) {
+                    return CheckResult.accepted();
+                }
+                if (!hasWant) {
+                    return CheckResult.rejected("Extra output after " + want.getTokenIndex() + " tokens: '" + got.tokenText(MAX_SHOWN_TOKEN_LENGTH) + "'");
+                }
+                if (!hasGot) {
+                    return CheckResult.rejected("Output ended after " + got.getTokenIndex() + " tokens, expected '" + want.tokenText(MAX_SHOWN_TOKEN_LENGTH) + "'");
+                }
+                if (!want.tokenEquals(got) && !withinTolerance(want, got)) {
+                    return CheckResult.rejected("Token " + want.getTokenIndex() + " differs: expected '" + want.tokenText(MAX_SHOWN_TOKEN_LENGTH)
+                        + "', got '" + got.tokenText(MAX_SHOWN_TOKEN_LENGTH) + "'");
+                }
+            }
+        } finally {
+            CheckerBuffers.release(buffers);
+        }
+    }
+
+    private boolean withinTolerance(ByteReader want, ByteReader got) {
+        if (tolerance == null) {
+            return false;
+        }
+        try {
+            double a = want.tokenAsDouble();
+            double b = got.tokenAsDouble();
+            if (Double.isNaN(a) || Double.isNaN(b)) {
+                return false;
+            }
+            double diff = Math.abs(a - b);
+            return diff <= tolerance || diff <= tolerance * Math.max(Math.abs(a), Math.abs(b));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
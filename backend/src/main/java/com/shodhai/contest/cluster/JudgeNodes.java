@@ -0,0 +1,113 @@
+package com.shodhai.contest.cluster;
+
+import com.shodhai.contest.entity.JudgeNode;
+import com.shodhai.contest.repository.JudgeNodeRepository;
+import com.shodhai.contest.service.SubmissionQueue;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Registry of the judging nodes sharing the submission table. Each judging node advertises its capacity and load
+ * in a heartbeat row keyed by its lease owner id, and reads everyone else's rows back on the same beat. A node
+ * whose heartbeat is older than the node timeout is treated as gone; its leases expire on their own.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeNodes {
+
+    private static final Comparator<JudgeNode> ROUTING_ORDER = Comparator
+        .comparingDouble(JudgeNodes::load)
+        .thenComparing(Comparator.comparingInt(JudgeNodes::freeSlots).reversed())
+        .thenComparing(JudgeNode::getId);
+
+    private final JudgeNodeRepository judgeNodeRepository;
+    private final SubmissionQueue submissionQueue;
+
+    @Value("${app.role:all}")
+    private String role;
+
+    @Value("${app.cluster.node-timeout:15000}")
+    private long nodeTimeoutMillis;
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile List<JudgeNode> peers = List.of();
+    private volatile boolean registered;
+
+    /**
+     * Publishes this node's capacity and load, and refreshes the view of its peers.
+     */
+    public void heartbeat(int capacity, int busy, int queued) {
+        JudgeNode self = self(capacity, busy, queued);
+        self.setRole(role);
+        self.setStartedAt(startedAt);
+        self.setHeartbeatAt(LocalDateTime.now());
+        judgeNodeRepository.save(self);
+        registered = true;
+        peers = live().stream().filter(node -> !node.getId().equals(self.getId())).toList();
+    }
+
+    public List<JudgeNode> live() {
+        return judgeNodeRepository.findByHeartbeatAtAfterOrderById(LocalDateTime.now().minus(nodeTimeoutMillis, ChronoUnit.MILLIS));
+    }
+
+    public boolean hasPeers() {
+        return !peers.isEmpty();
+    }
+
+    /**
+     * How many of {@code backlog} claimable submissions this node may pull into its open slots. Work goes
+     * to the least-loaded nodes first: a node takes only what is left after every node ahead of it, by load and
+     * then by free slots as of their last heartbeats, has filled its own free slots. A node that stops polling is
+     * soon reported busy or gone, and the others then take the overflow.
+     */
+    public int claimAllowance(int capacity, int busy, int queued, long backlog) {
+        JudgeNode self = self(capacity, busy, queued);
+        // claimable rows already sitting in some node's queue are spoken for
+        long unassigned = backlog - queued;
+        long ahead = 0;
+        for (JudgeNode peer : peers) {
+            unassigned -= peer.getQueued();
+            if (ROUTING_ORDER.compare(peer, self) < 0) {
+                ahead += freeSlots(peer);
+            }
+        }
+        return (int) Math.max(0, Math.min(freeSlots(self), unassigned - ahead));
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!registered) {
+            return;
+        }
+        try {
+            judgeNodeRepository.deleteById(submissionQueue.getNodeId());
+        } catch (Exception e) {
+            log.warn("Could not remove node {} from the registry: {}", submissionQueue.getNodeId(), e.getMessage());
+        }
+    }
+
+    private JudgeNode self(int capacity, int busy, int queued) {
+        JudgeNode self = new JudgeNode();
+        self.setId(submissionQueue.getNodeId());
+        self.setCapacity(capacity);
+        self.setBusy(busy);
+        self.setQueued(queued);
+        return self;
+    }
+
+    private static double load(JudgeNode node) {
+        return node.getCapacity() == 0 ? 1.0 : (double) (node.getBusy() + node.getQueued()) / node.getCapacity();
+    }
+
+    private static int freeSlots(JudgeNode node) {
+        return Math.max(0, node.getCapacity() - node.getBusy() - node.getQueued());
+    }
+}
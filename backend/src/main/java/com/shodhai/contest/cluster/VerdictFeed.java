@@ -0,0 +1,85 @@
+package com.shodhai.contest.cluster;
+
+import com.shodhai.contest.event.SubmissionJudgedEvent;
+import com.shodhai.contest.repository.JudgedSubmission;
+import com.shodhai.contest.repository.SubmissionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings verdicts written by worker nodes to an API-only node, which judges nothing itself and so never sees a
+ * local judged event. Submissions are read in order of the database time they were judged at and republished as
+ * judged events, so the leaderboards and status streams update as on a single node. Each poll rereads a short
+ * overlap before the newest verdict seen, because a verdict stamped earlier can commit later; verdicts already
+ * relayed are skipped by id and judging time.
+ */
+@Component
+@ConditionalOnProperty(name = "app.role", havingValue = "api")
+@RequiredArgsConstructor
+@Slf4j
+public class VerdictFeed {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final SubmissionRepository submissionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.cluster.verdict-overlap:5000}")
+    private long overlapMillis;
+
+    @Value("${app.cluster.verdict-page-size:500}")
+    private int pageSize;
+
+    // only touched from the scheduler thread after start
+    private final Map<Long, LocalDateTime> relayed = new HashMap<>();
+    private LocalDateTime watermark;
+
+    /**
+     * Starts after the verdicts already written; the leaderboards are rebuilt from those at startup.
+     */
+    @PostConstruct
+    public void start() {
+        watermark = submissionRepository.findLatestJudgedAt().orElse(BEGINNING);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.verdict-poll-interval:500}")
+    public void poll() {
+        LocalDateTime from = watermark.minus(overlapMillis, ChronoUnit.MILLIS);
+        long afterId = 0;
+        int published = 0;
+        List<JudgedSubmission> page;
+        do {
+            page = submissionRepository.findJudgedAfter(from, afterId, PageRequest.of(0, pageSize));
+            for (JudgedSubmission judged : page) {
+                if (!judged.getJudgedAt().equals(relayed.put(judged.getId(), judged.getJudgedAt()))) {
+                    eventPublisher.publishEvent(new SubmissionJudgedEvent(judged.getId(), judged.getContestId(),
+                        judged.getProblemId(), judged.getUsername(), judged.getStatus(), judged.getVerdict(),
+                        judged.getSubmittedAt(), judged.isSampleOnly()));
+                    published++;
+                }
+                if (judged.getJudgedAt().isAfter(watermark)) {
+                    watermark = judged.getJudgedAt();
+                }
+                from = judged.getJudgedAt();
+                afterId = judged.getId();
+            }
+        } while (page.size() == pageSize);
+        LocalDateTime horizon = watermark.minus(overlapMillis, ChronoUnit.MILLIS);
+        relayed.values().removeIf(judgedAt -> judgedAt.isBefore(horizon));
+        if (published > 0) {
+            log.debug("Relayed {} verdicts judged up to {}", published, watermark);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.shodhai.contest.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller whose handlers all need the admin token; {@link AdminAuthInterceptor} checks every request that
+ * Spring MVC maps to one of them.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AdminApi {
+}
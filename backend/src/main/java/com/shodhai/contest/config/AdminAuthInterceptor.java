@@ -0,0 +1,69 @@
+package com.shodhai.contest.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards the {@link AdminApi} controllers with a shared admin token, sent as {@code Authorization: Bearer <token>}.
+ * The check runs on the handler Spring MVC picked, not on the raw request URI, so matrix parameters, percent-encoding
+ * or any other spelling that still reaches an admin handler is checked too. Without a configured
+ * {@code app.admin.token} the admin API is switched off entirely, so a deployment never ends up with test data,
+ * rejudges or diagnostics open to anonymous callers.
+ */
+@Component
+@Slf4j
+public class AdminAuthInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final String BEARER = "Bearer ";
+
+    private final byte[] token;
+
+    public AdminAuthInterceptor(@Value("${app.admin.token:}") String token) {
+        this.token = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+        if (this.token == null) {
+            log.info("No app.admin.token set, the admin API is disabled");
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod method) || !method.getBeanType().isAnnotationPresent(AdminApi.class)) {
+            return true;
+        }
+        if (token == null) {
+            reject(response, HttpServletResponse.SC_FORBIDDEN, "The admin API is disabled");
+            return false;
+        }
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)
+                || !MessageDigest.isEqual(token, header.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8))) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Admin token required");
+            return false;
+        }
+        return true;
+    }
+
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,18 @@
+package com.shodhai.contest.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Beans that serve the public and admin API, present unless the node runs with {@code app.role=worker}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnExpression("'${app.role:all}' != 'worker'")
+public @interface ConditionalOnApi {
+}
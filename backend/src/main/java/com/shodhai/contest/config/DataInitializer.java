@@ -1,18 +1,26 @@
 package com.shodhai.contest.config;
 import com.shodhai.contest.entity.*;
 import com.shodhai.contest.repository.*;
+import com.shodhai.contest.testdata.StoredBlob;
+import com.shodhai.contest.testdata.TestDataKind;
+import com.shodhai.contest.testdata.TestDataStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 @Component
+@ConditionalOnApi
+@ConditionalOnProperty(name = "app.sample-data", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
     private final ContestRepository contestRepository;
     private final ProblemRepository problemRepository;
+    private final TestDataStore testDataStore;
     @Override
-    public void run(String... args) {
+    public void run(String... args) throws IOException {
         Contest contest = new Contest();
         contest.setId("contest-1");
         contest.setName("Sample Coding Contest");
@@ -27,15 +35,16 @@ public class DataInitializer implements CommandLineRunner {
         p1.setStatement("Given two integers A and B, compute their sum.");
         p1.setInputFormat("Two space-separated integers A and B");
         p1.setOutputFormat("Single integer representing A + B");
+        p1.setTimeLimitMs(2000);
+        p1.setMemoryLimitMb(256);
+        p1.setTestParallelism(2);
         TestCase tc1a = new TestCase();
         tc1a.setProblem(p1);
-        tc1a.setInput("5 3");
-        tc1a.setExpectedOutput("8");
+        storeTestData(tc1a, "5 3", "8");
         tc1a.setSample(true);
         TestCase tc1b = new TestCase();
         tc1b.setProblem(p1);
-        tc1b.setInput("10 20");
-        tc1b.setExpectedOutput("30");
+        storeTestData(tc1b, "10 20", "30");
         tc1b.setSample(false);
         p1.setTestCases(Arrays.asList(tc1a, tc1b));
         problemRepository.save(p1);
@@ -48,13 +57,11 @@ public class DataInitializer implements CommandLineRunner {
         p2.setOutputFormat("Factorial of N");
         TestCase tc2a = new TestCase();
         tc2a.setProblem(p2);
-        tc2a.setInput("5");
-        tc2a.setExpectedOutput("120");
+        storeTestData(tc2a, "5", "120");
         tc2a.setSample(true);
         TestCase tc2b = new TestCase();
         tc2b.setProblem(p2);
-        tc2b.setInput("3");
-        tc2b.setExpectedOutput("6");
+        storeTestData(tc2b, "3", "6");
         tc2b.setSample(false);
         p2.setTestCases(Arrays.asList(tc2a, tc2b));
         problemRepository.save(p2);
@@ -67,16 +74,22 @@ public class DataInitializer implements CommandLineRunner {
         p3.setOutputFormat("Reversed string");
         TestCase tc3a = new TestCase();
         tc3a.setProblem(p3);
-        tc3a.setInput("hello");
-        tc3a.setExpectedOutput("olleh");
+        storeTestData(tc3a, "hello", "olleh");
         tc3a.setSample(true);
         TestCase tc3b = new TestCase();
         tc3b.setProblem(p3);
-        tc3b.setInput("world");
-        tc3b.setExpectedOutput("dlrow");
+        storeTestData(tc3b, "world", "dlrow");
         tc3b.setSample(false);
         p3.setTestCases(Arrays.asList(tc3a, tc3b));
         problemRepository.save(p3);
         System.out.println("Sample data initialized!");
     }
+    private void storeTestData(TestCase testCase, String input, String expectedOutput) throws IOException {
+        StoredBlob inputBlob = testDataStore.put(TestDataKind.INPUT, input);
+        StoredBlob outputBlob = testDataStore.put(TestDataKind.OUTPUT, expectedOutput);
+        testCase.setInputHash(inputBlob.getHash());
+        testCase.setInputSize(inputBlob.getSize());
+        testCase.setExpectedOutputHash(outputBlob.getHash());
+        testCase.setExpectedOutputSize(outputBlob.getSize());
+    }
 }
@@ -0,0 +1,110 @@
+package com.shodhai.contest.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL statements Hibernate prepares for each request, per endpoint. A request over
+ * {@code app.sql-stats.warn-threshold} statements is logged, so an endpoint that regresses into N+1 loading shows up
+ * in the logs and in {@code /api/admin/sql-stats}. Plain JDBC statements are not seen here; the request paths use
+ * none, and {@code EndpointStatementCountTest} pins the exact counts at the connection level.
+ */
+@Component
+@Slf4j
+public class SqlStatementStats extends OncePerRequestFilter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final long serialVersionUID = 1L;
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    @Value("${app.sql-stats.warn-threshold:10}")
+    private int warnThreshold;
+
+    private final Map<String, EndpointCounter> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int[] count = new int[1];
+        CURRENT.set(count);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                String endpoint = request.getMethod() + " " + pattern;
+                endpoints.computeIfAbsent(endpoint, key -> new EndpointCounter()).record(count[0]);
+                if (count[0] > warnThreshold) {
+                    log.warn("{} {} ran {} SQL statements", request.getMethod(), request.getRequestURI(), count[0]);
+                }
+            }
+        }
+    }
+
+    public List<EndpointStats> snapshot() {
+        return endpoints.entrySet().stream()
+            .map(entry -> entry.getValue().toStats(entry.getKey()))
+            .sorted(Comparator.comparing(EndpointStats::getEndpoint))
+            .collect(Collectors.toList());
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class EndpointStats {
+        private String endpoint;
+        private long requests;
+        private long statements;
+        private long maxStatements;
+    }
+
+    private static final class EndpointCounter {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(int count) {
+            requests.increment();
+            statements.add(count);
+            max.accumulate(count);
+        }
+
+        EndpointStats toStats(String endpoint) {
+            return new EndpointStats(endpoint, requests.sum(), statements.sum(), max.get());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.shodhai.contest.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs Tomcat request handling on virtual threads when {@code app.virtual-threads.enabled} is set, so requests
+ * blocked on JDBC no longer hold one of a fixed number of platform threads.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+            }
+        };
+    }
+}
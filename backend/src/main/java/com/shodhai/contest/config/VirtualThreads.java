@@ -0,0 +1,28 @@
+package com.shodhai.contest.config;
+
+import lombok.extern.slf4j.Slf4j;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads without raising the compile baseline: the executor is looked up reflectively, so the
+ * build still targets Java 17 and virtual-thread mode simply falls back to platform threads on older runtimes.
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * A new executor that starts one virtual thread per task, or null if the runtime has no virtual threads.
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads need Java 21 or newer, running on {}; using platform threads", Runtime.version());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.shodhai.contest.controller;
+import com.shodhai.contest.cache.ArtifactCache;
+import com.shodhai.contest.cache.CacheStats;
+import com.shodhai.contest.cache.VerdictCache;
+import com.shodhai.contest.cache.ViewCaches;
+import com.shodhai.contest.cluster.JudgeNodes;
+import com.shodhai.contest.config.AdminApi;
+import com.shodhai.contest.config.ConditionalOnApi;
+import com.shodhai.contest.config.SqlStatementStats;
+import com.shodhai.contest.dto.*;
+import com.shodhai.contest.entity.JudgeNode;
+import com.shodhai.contest.metrics.JudgeTrace;
+import com.shodhai.contest.metrics.JudgeTraces;
+import com.shodhai.contest.service.RejudgeJob;
+import com.shodhai.contest.service.RejudgeService;
+import com.shodhai.contest.service.SubmissionReferences;
+import com.shodhai.contest.service.TestCaseService;
+import com.shodhai.contest.testdata.StoredBlob;
+import com.shodhai.contest.testdata.TestDataKind;
+import com.shodhai.contest.testdata.TestDataStore;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+@RestController
+@AdminApi
+@ConditionalOnApi
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+    private final TestDataStore testDataStore;
+    private final TestCaseService testCaseService;
+    private final ViewCaches viewCaches;
+    private final VerdictCache verdictCache;
+    private final ArtifactCache artifactCache;
+    private final SqlStatementStats sqlStatementStats;
+    private final JudgeTraces judgeTraces;
+    private final RejudgeService rejudgeService;
+    private final SubmissionReferences submissionReferences;
+    private final JudgeNodes judgeNodes;
+    @PostMapping(value = "/testdata/{kind}", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<StoredBlob> uploadTestData(@PathVariable String kind, HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(testDataStore.put(TestDataKind.fromPath(kind), request.getInputStream()));
+    }
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStats>> getCacheStats() {
+        List<CacheStats> stats = new ArrayList<>(viewCaches.stats());
+        stats.addAll(submissionReferences.stats());
+        stats.add(verdictCache.stats());
+        stats.add(artifactCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+    @GetMapping("/nodes")
+    public ResponseEntity<List<JudgeNode>> getJudgeNodes() {
+        return ResponseEntity.ok(judgeNodes.live());
+    }
+    @GetMapping("/sql-stats")
+    public ResponseEntity<List<SqlStatementStats.EndpointStats>> getSqlStats() {
+        return ResponseEntity.ok(sqlStatementStats.snapshot());
+    }
+    @GetMapping("/submissions/{submissionId}/trace")
+    public ResponseEntity<JudgeTrace> getJudgeTrace(@PathVariable Long submissionId) {
+        JudgeTrace trace = judgeTraces.get(submissionId);
+        return trace == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(trace);
+    }
+    @PostMapping("/rejudge")
+    public ResponseEntity<RejudgeJob> startRejudge(@RequestBody RejudgeRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(rejudgeService.rejudge(request));
+    }
+    @GetMapping("/rejudge/{jobId}")
+    public ResponseEntity<RejudgeJob> getRejudge(@PathVariable Long jobId) {
+        return ResponseEntity.ok(rejudgeService.get(jobId));
+    }
+    @DeleteMapping("/rejudge/{jobId}")
+    public ResponseEntity<RejudgeJob> cancelRejudge(@PathVariable Long jobId) {
+        return ResponseEntity.ok(rejudgeService.cancel(jobId));
+    }
+    @GetMapping("/testdata/{kind}/{hash}")
+    public ResponseEntity<Resource> downloadTestData(@PathVariable String kind, @PathVariable String hash) {
+        Path path = testDataStore.path(TestDataKind.fromPath(kind), hash);
+        if (!Files.exists(path)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(new FileSystemResource(path));
+    }
+    @GetMapping("/problems/{problemId}/testcases")
+    public ResponseEntity<List<TestCaseResponse>> getTestCases(@PathVariable String problemId) {
+        return ResponseEntity.ok(testCaseService.getTestCases(problemId));
+    }
+    @PostMapping("/problems/{problemId}/testcases")
+    public ResponseEntity<TestCaseResponse> addTestCase(@PathVariable String problemId, @RequestBody TestCaseRequest request) throws IOException {
+        return ResponseEntity.ok(testCaseService.addTestCase(problemId, request));
+    }
+    @DeleteMapping("/problems/{problemId}/testcases/{testCaseId}")
+    public ResponseEntity<Void> deleteTestCase(@PathVariable String problemId, @PathVariable Long testCaseId) {
+        testCaseService.deleteTestCase(problemId, testCaseId);
+        return ResponseEntity.noContent().build();
+    }
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+    }
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+}
@@ -1,16 +1,30 @@
 package com.shodhai.contest.controller;
+import com.shodhai.contest.config.ConditionalOnApi;
 import com.shodhai.contest.dto.*;
+import com.shodhai.contest.leaderboard.LeaderboardPage;
 import com.shodhai.contest.service.ContestService;
+import com.shodhai.contest.service.JudgeQueueFullException;
+import com.shodhai.contest.stream.StreamEventBridge;
+import com.shodhai.contest.stream.StreamHub;
+import com.shodhai.contest.stream.Subscription;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
+import java.util.Map;
 @RestController
+@ConditionalOnApi
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 @RequiredArgsConstructor
 public class ContestController {
     private final ContestService contestService;
+    private final StreamHub streamHub;
     @GetMapping("/contests/{contestId}")
     public ResponseEntity<ContestResponse> getContest(@PathVariable String contestId) {
         return ResponseEntity.ok(contestService.getContest(contestId));
@@ -27,8 +41,86 @@ public class ContestController {
     public ResponseEntity<SubmissionResponse> getSubmissionStatus(@PathVariable Long submissionId) {
         return ResponseEntity.ok(contestService.getSubmissionStatus(submissionId));
     }
+    @GetMapping("/submissions/{submissionId}/tests")
+    public ResponseEntity<List<TestResultResponse>> getSubmissionTests(@PathVariable Long submissionId) {
+        return ResponseEntity.ok(contestService.getSubmissionTests(submissionId));
+    }
+    @GetMapping(value = "/submissions/{submissionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSubmission(@PathVariable Long submissionId) {
+        Subscription subscription = streamHub.subscribe(StreamEventBridge.submissionTopic(submissionId));
+        if (subscription == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        SubmissionResponse current;
+        try {
+            current = contestService.getSubmissionStatus(submissionId);
+        } catch (RuntimeException e) {
+            streamHub.cancel(subscription);
+            throw e;
+        }
+        subscription.start("status", current);
+        if (!"PENDING".equals(current.getStatus()) && !"RUNNING".equals(current.getStatus())) {
+            subscription.complete();
+        }
+        return ResponseEntity.ok(subscription.getEmitter());
+    }
+    @GetMapping(value = "/contests/{contestId}/leaderboard/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLeaderboard(@PathVariable String contestId, @RequestParam(required = false) Integer limit) {
+        Subscription subscription = streamHub.subscribe(StreamEventBridge.leaderboardTopic(contestId));
+        if (subscription == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        subscription.start("snapshot", contestService.getLeaderboardSnapshot(contestId, limit));
+        return ResponseEntity.ok(subscription.getEmitter());
+    }
+    /**
+     * Top {@code limit} entries from {@code offset}, or the window of {@code radius} entries around one user. The
+     * body is a pre-serialized snapshot page, gzipped when the client accepts it, and an unchanged page is a 304.
+     */
     @GetMapping("/contests/{contestId}/leaderboard")
-    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(@PathVariable String contestId) {
-        return ResponseEntity.ok(contestService.getLeaderboard(contestId));
+    @CrossOrigin(origins = "*", exposedHeaders = {HttpHeaders.ETAG, "X-Leaderboard-Version", "X-Total-Count"})
+    public ResponseEntity<byte[]> getLeaderboard(@PathVariable String contestId,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(defaultValue = "0") int offset,
+                                                 @RequestParam(required = false) String around,
+                                                 @RequestParam(defaultValue = "10") int radius,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        LeaderboardPage page = contestService.getLeaderboardPage(contestId, offset, limit, around, radius);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(page.getEtag());
+        headers.setCacheControl(CacheControl.noCache());
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        headers.set("X-Leaderboard-Version", String.valueOf(page.getVersion()));
+        headers.set("X-Total-Count", String.valueOf(page.getTotal()));
+        if (etagMatches(ifNoneMatch, page.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (page.getGzipped() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return ResponseEntity.ok().headers(headers).body(page.getGzipped());
+        }
+        return ResponseEntity.ok().headers(headers).body(page.getJson());
+    }
+    @ExceptionHandler(JudgeQueueFullException.class)
+    public ResponseEntity<Map<String, Object>> handleQueueFull(JudgeQueueFullException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(Map.of("error", e.getMessage(), "retryAfterSeconds", e.getRetryAfterSeconds()));
+    }
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        // weak comparison: a client may send the tag back with or without the W/ prefix
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -8,6 +8,8 @@ public class LeaderboardEntry {
     private String username;
     private Integer score;
     private Integer problemsSolved;
+    private Integer penalty;
+    private Integer wrongAttempts;
     private Integer rank;
     private LocalDateTime lastSubmissionTime;
 }
@@ -9,6 +9,8 @@ public class ProblemResponse {
     private String statement;
     private String inputFormat;
     private String outputFormat;
+    private Integer timeLimitMs;
+    private Integer memoryLimitMb;
     private List<SampleTestCase> sampleTestCases;
     @Data
     public static class SampleTestCase {
@@ -0,0 +1,10 @@
+package com.shodhai.contest.dto;
+import com.shodhai.contest.entity.SubmissionStatus;
+import lombok.Data;
+@Data
+public class RejudgeRequest {
+    private String contestId;
+    private String problemId;
+    private String username;
+    private SubmissionStatus status;
+}
@@ -7,4 +7,5 @@ public class SubmissionRequest {
     private String problemId;
     private String code;
     private String language;
+    private boolean sampleOnly;
 }
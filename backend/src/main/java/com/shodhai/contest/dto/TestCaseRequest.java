@@ -0,0 +1,8 @@
+package com.shodhai.contest.dto;
+import lombok.Data;
+@Data
+public class TestCaseRequest {
+    private String inputHash;
+    private String expectedOutputHash;
+    private boolean sample;
+}
@@ -0,0 +1,11 @@
+package com.shodhai.contest.dto;
+import lombok.Data;
+@Data
+public class TestCaseResponse {
+    private Long id;
+    private String inputHash;
+    private long inputSize;
+    private String expectedOutputHash;
+    private long expectedOutputSize;
+    private boolean sample;
+}
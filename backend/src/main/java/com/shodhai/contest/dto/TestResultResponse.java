@@ -0,0 +1,11 @@
+package com.shodhai.contest.dto;
+import lombok.Data;
+@Data
+public class TestResultResponse {
+    private int test;
+    private String status;
+    private Long cpuTimeMillis;
+    private Long wallTimeMillis;
+    private Long memoryKb;
+    private String detail;
+}
@@ -0,0 +1,4 @@
+package com.shodhai.contest.entity;
+public enum CheckerMode {
+    EXACT, WHITESPACE_INSENSITIVE, FLOAT_TOLERANCE, CUSTOM
+}
@@ -1,10 +1,12 @@
 package com.shodhai.contest.entity;
+import com.shodhai.contest.cache.ViewCacheInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 @Entity
+@EntityListeners(ViewCacheInvalidator.class)
 @Data
 public class Contest {
     @Id
@@ -15,5 +17,6 @@ public class Contest {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     @OneToMany(mappedBy = "contest", cascade = CascadeType.ALL)
+    @OrderBy("id")
     private List<Problem> problems = new ArrayList<>();
 }
@@ -0,0 +1,16 @@
+package com.shodhai.contest.entity;
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+@Entity
+@Data
+public class JudgeNode {
+    @Id
+    private String id;
+    private String role;
+    private int capacity;
+    private int busy;
+    private int queued;
+    private LocalDateTime startedAt;
+    private LocalDateTime heartbeatAt;
+}
@@ -1,14 +1,16 @@
 package com.shodhai.contest.entity;
+import com.shodhai.contest.cache.ViewCacheInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.util.ArrayList;
 import java.util.List;
 @Entity
+@EntityListeners(ViewCacheInvalidator.class)
 @Data
 public class Problem {
     @Id
     private String id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "contest_id")
     private Contest contest;
     private String title;
@@ -18,6 +20,14 @@ public class Problem {
     private String inputFormat;
     @Column(length = 1000)
     private String outputFormat;
+    private Integer timeLimitMs;
+    private Integer memoryLimitMb;
+    private Integer testParallelism;
+    @Enumerated(EnumType.STRING)
+    private CheckerMode checkerMode;
+    private Double floatTolerance;
+    private String customChecker;
     @OneToMany(mappedBy = "problem", cascade = CascadeType.ALL)
+    @OrderBy("id")
     private List<TestCase> testCases = new ArrayList<>();
 }
@@ -3,20 +3,27 @@ import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_submission_problem_status", columnList = "problem_id, status"),
+    @Index(name = "idx_submission_user_problem", columnList = "user_id, problem_id"),
+    @Index(name = "idx_submission_status_lease", columnList = "status, leaseExpiresAt"),
+    @Index(name = "idx_submission_judged_at", columnList = "judgedAt")
+})
 @Data
 public class Submission {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "problem_id")
     private Problem problem;
     @Column(length = 10000)
     private String code;
     private String language;
+    private boolean sampleOnly;
     @Enumerated(EnumType.STRING)
     private SubmissionStatus status;
     private String verdict;
@@ -25,4 +32,9 @@ public class Submission {
     private LocalDateTime submittedAt;
     private Integer executionTime;
     private Integer memoryUsed;
+    private String leaseOwner;
+    private LocalDateTime leaseExpiresAt;
+    private int attempts;
+    private boolean rejudge;
+    private LocalDateTime judgedAt;
 }
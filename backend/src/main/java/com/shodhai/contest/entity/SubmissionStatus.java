@@ -1,4 +1,5 @@
 package com.shodhai.contest.entity;
 public enum SubmissionStatus {
-    PENDING, RUNNING, ACCEPTED, WRONG_ANSWER, TIME_LIMIT_EXCEEDED, MEMORY_LIMIT_EXCEEDED, RUNTIME_ERROR, COMPILATION_ERROR
+    PENDING, RUNNING, ACCEPTED, WRONG_ANSWER, TIME_LIMIT_EXCEEDED, MEMORY_LIMIT_EXCEEDED, RUNTIME_ERROR, COMPILATION_ERROR,
+    OUTPUT_LIMIT_EXCEEDED
 }
@@ -0,0 +1,23 @@
+package com.shodhai.contest.entity;
+import jakarta.persistence.*;
+import lombok.Data;
+@Entity
+@Table(indexes = @Index(name = "idx_test_result_submission", columnList = "submission_id, test_index"))
+@Data
+public class SubmissionTestResult {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "submission_id", nullable = false)
+    private Long submissionId;
+    @Column(name = "test_index", nullable = false)
+    private int testIndex;
+    private Long testCaseId;
+    @Enumerated(EnumType.STRING)
+    private SubmissionStatus status;
+    private Long cpuTimeMillis;
+    private Long wallTimeMillis;
+    private Long memoryKb;
+    @Column(length = 1000)
+    private String detail;
+}
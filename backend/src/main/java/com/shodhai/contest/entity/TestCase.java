@@ -1,18 +1,22 @@
 package com.shodhai.contest.entity;
+import com.shodhai.contest.cache.ViewCacheInvalidator;
 import jakarta.persistence.*;
 import lombok.Data;
 @Entity
+@EntityListeners(ViewCacheInvalidator.class)
 @Data
 public class TestCase {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "problem_id")
     private Problem problem;
-    @Column(length = 5000)
-    private String input;
-    @Column(length = 5000)
-    private String expectedOutput;
+    @Column(length = 64)
+    private String inputHash;
+    private long inputSize;
+    @Column(length = 64)
+    private String expectedOutputHash;
+    private long expectedOutputSize;
     private boolean isSample;
 }
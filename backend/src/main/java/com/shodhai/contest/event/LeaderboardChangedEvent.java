@@ -0,0 +1,15 @@
+package com.shodhai.contest.event;
+
+import com.shodhai.contest.dto.LeaderboardEntry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LeaderboardChangedEvent {
+    private String contestId;
+    private long version;
+    private String username;
+    private Integer previousRank;
+    private LeaderboardEntry entry;
+}
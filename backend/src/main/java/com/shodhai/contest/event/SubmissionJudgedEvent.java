@@ -0,0 +1,19 @@
+package com.shodhai.contest.event;
+
+import com.shodhai.contest.entity.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class SubmissionJudgedEvent {
+    private Long submissionId;
+    private String contestId;
+    private String problemId;
+    private String username;
+    private SubmissionStatus status;
+    private String verdict;
+    private LocalDateTime submittedAt;
+    private boolean sampleOnly;
+}
@@ -0,0 +1,14 @@
+package com.shodhai.contest.event;
+
+import com.shodhai.contest.entity.SubmissionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SubmissionProgressEvent {
+    private Long submissionId;
+    private SubmissionStatus status;
+    private int testsCompleted;
+    private int testsTotal;
+}
@@ -0,0 +1,175 @@
+package com.shodhai.contest.leaderboard;
+
+import com.shodhai.contest.dto.LeaderboardEntry;
+import com.shodhai.contest.entity.SubmissionStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Standings of one contest, kept in rank order and updated one verdict at a time. Attempts are stored per
+ * submission id, so replaying a verdict is harmless and verdicts may arrive in any order.
+ */
+public class ContestBoard {
+
+    public static final Set<SubmissionStatus> WRONG_VERDICTS = EnumSet.of(SubmissionStatus.WRONG_ANSWER,
+        SubmissionStatus.TIME_LIMIT_EXCEEDED, SubmissionStatus.MEMORY_LIMIT_EXCEEDED, SubmissionStatus.RUNTIME_ERROR,
+        SubmissionStatus.OUTPUT_LIMIT_EXCEEDED);
+
+    private static final int POINTS_PER_PROBLEM = 100;
+    private static final int PENALTY_MINUTES_PER_WRONG_ATTEMPT = 20;
+
+    private static final Comparator<Standing> RANK_ORDER = Comparator
+        .comparingInt((Standing s) -> -s.score)
+        .thenComparingLong(s -> s.penalty)
+        .thenComparing(s -> s.lastAcceptedAt)
+        .thenComparing(s -> s.username);
+
+    private final LocalDateTime startTime;
+    private final Map<String, Standing> standings = new HashMap<>();
+    private final RankedSet<Standing> ranking = new RankedSet<>(RANK_ORDER);
+    private long version;
+
+    public ContestBoard(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * Records the verdict of a submission. Statuses that do not count (pending, compilation errors) remove any
+     * earlier verdict recorded for the same submission. Returns the resulting change, or null if the board did not
+     * change.
+     */
+    public synchronized BoardChange apply(Long submissionId, String username, String problemId, SubmissionStatus status, LocalDateTime submittedAt) {
+        boolean counts = status == SubmissionStatus.ACCEPTED || WRONG_VERDICTS.contains(status);
+        Standing standing = standings.get(username);
+        if (standing == null) {
+            if (!counts) {
+                return null;
+            }
+            standing = new Standing(username);
+            standings.put(username, standing);
+        }
+
+        int previousRank = standing.score > 0 ? ranking.rankOf(standing) : -1;
+        if (previousRank >= 0) {
+            ranking.remove(standing);
+        }
+        Map<Long, Attempt> attempts = standing.problems.computeIfAbsent(problemId, id -> new HashMap<>());
+        boolean changed;
+        if (counts) {
+            Attempt attempt = new Attempt(submittedAt, status == SubmissionStatus.ACCEPTED);
+            changed = !attempt.equals(attempts.put(submissionId, attempt));
+        } else {
+            changed = attempts.remove(submissionId) != null;
+        }
+        if (changed) {
+            standing.recompute(startTime);
+            version++;
+        }
+        LeaderboardEntry entry = null;
+        if (standing.score > 0) {
+            ranking.add(standing);
+            entry = standing.toEntry(ranking.rankOf(standing) + 1);
+        }
+        return changed ? new BoardChange(version, username, previousRank < 0 ? null : previousRank + 1, entry) : null;
+    }
+
+    /**
+     * Starts this board's versions after those of the board it replaces, so versions only ever increase. The jump
+     * itself is a version gap, which makes stream clients take a fresh snapshot.
+     */
+    public synchronized void continueFrom(long previousVersion) {
+        version = Math.max(version, previousVersion) + 1;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int size() {
+        return ranking.size();
+    }
+
+    public synchronized List<LeaderboardEntry> page(int from, int limit) {
+        List<Standing> slice = ranking.range(from, limit);
+        List<LeaderboardEntry> entries = new ArrayList<>(slice.size());
+        for (int i = 0; i < slice.size(); i++) {
+            entries.add(slice.get(i).toEntry(from + i + 1));
+        }
+        return entries;
+    }
+
+    /**
+     * Zero-based rank of the user, or -1 if the user has not solved anything yet.
+     */
+    public synchronized int rankOf(String username) {
+        Standing standing = standings.get(username);
+        return standing == null || standing.score == 0 ? -1 : ranking.rankOf(standing);
+    }
+
+    /**
+     * One user's move on the board. Ranks are one-based; a null previous rank means the user was not ranked before
+     * and a null entry means the user is no longer ranked.
+     */
+    public record BoardChange(long version, String username, Integer previousRank, LeaderboardEntry entry) {
+    }
+
+    private record Attempt(LocalDateTime submittedAt, boolean accepted) {
+    }
+
+    private static final class Standing {
+
+        private final String username;
+        private final Map<String, Map<Long, Attempt>> problems = new HashMap<>();
+        private int score;
+        private int solved;
+        private long penalty;
+        private int wrongAttempts;
+        private LocalDateTime lastAcceptedAt = LocalDateTime.MIN;
+
+        Standing(String username) {
+            this.username = username;
+        }
+
+        void recompute(LocalDateTime contestStart) {
+            solved = 0;
+            penalty = 0;
+            wrongAttempts = 0;
+            lastAcceptedAt = LocalDateTime.MIN;
+            for (Map<Long, Attempt> attempts : problems.values()) {
+                LocalDateTime firstAccepted = null;
+                for (Attempt attempt : attempts.values()) {
+                    if (attempt.accepted() && (firstAccepted == null || attempt.submittedAt().isBefore(firstAccepted))) {
+                        firstAccepted = attempt.submittedAt();
+                    }
+                }
+                int wrongBefore = 0;
+                for (Attempt attempt : attempts.values()) {
+                    if (!attempt.accepted() && (firstAccepted == null || attempt.submittedAt().isBefore(firstAccepted))) {
+                        wrongBefore++;
+                    }
+                }
+                wrongAttempts += wrongBefore;
+                if (firstAccepted != null) {
+                    solved++;
+                    long minutes = contestStart == null ? 0 : Math.max(0, Duration.between(contestStart, firstAccepted).toMinutes());
+                    penalty += minutes + (long) PENALTY_MINUTES_PER_WRONG_ATTEMPT * wrongBefore;
+                    if (firstAccepted.isAfter(lastAcceptedAt)) {
+                        lastAcceptedAt = firstAccepted;
+                    }
+                }
+            }
+            score = solved * POINTS_PER_PROBLEM;
+        }
+
+        LeaderboardEntry toEntry(int rank) {
+            return new LeaderboardEntry(username, score, solved, (int) penalty, wrongAttempts, rank, lastAcceptedAt);
+        }
+    }
+}
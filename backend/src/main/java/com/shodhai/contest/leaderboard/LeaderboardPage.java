@@ -0,0 +1,19 @@
+package com.shodhai.contest.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One slice of a leaderboard snapshot, serialized once and shared by every request for it. The ETag is derived
+ * from the JSON, so nodes that hold the same standings hand out the same tag. The gzipped body is kept only when
+ * the JSON is large enough for compression to pay off.
+ */
+@Getter
+@AllArgsConstructor
+public class LeaderboardPage {
+    private final long version;
+    private final int total;
+    private final String etag;
+    private final byte[] json;
+    private final byte[] gzipped;
+}
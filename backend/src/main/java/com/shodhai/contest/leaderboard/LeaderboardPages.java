@@ -0,0 +1,158 @@
+package com.shodhai.contest.leaderboard;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shodhai.contest.config.ConditionalOnApi;
+import com.shodhai.contest.dto.LeaderboardEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves leaderboard reads from versioned snapshots instead of the live board. A snapshot copies the standings
+ * once, and each page of it (the top N, a later page, the window around one user) is serialized and gzipped once,
+ * then handed to every poller as the same bytes. A snapshot is replaced when the board has moved on, but no more
+ * often than the snapshot max age, so a burst of verdicts costs one copy instead of one per verdict.
+ */
+@Component
+@ConditionalOnApi
+public class LeaderboardPages {
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final LeaderboardService leaderboardService;
+    private final ObjectMapper objectMapper;
+    private final long maxAgeNanos;
+    private final int maxPages;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public LeaderboardPages(LeaderboardService leaderboardService, ObjectMapper objectMapper,
+                            @Value("${leaderboard.snapshot.max-age-millis:1000}") long maxAgeMillis,
+                            @Value("${leaderboard.snapshot.max-pages:256}") int maxPages) {
+        this.leaderboardService = leaderboardService;
+        this.objectMapper = objectMapper;
+        this.maxAgeNanos = maxAgeMillis * 1_000_000;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Entries ranked {@code offset + 1} to {@code offset + limit}; a null limit means all of them.
+     */
+    public LeaderboardPage page(String contestId, int offset, Integer limit) {
+        Snapshot snapshot = snapshot(contestId);
+        return snapshot.page(Math.max(0, offset), limit == null ? Integer.MAX_VALUE : Math.max(0, limit));
+    }
+
+    /**
+     * The user's entry with up to {@code radius} entries on either side, or an empty page if the user is not
+     * ranked yet.
+     */
+    public LeaderboardPage around(String contestId, String username, int radius) {
+        Snapshot snapshot = snapshot(contestId);
+        Integer index = snapshot.ranks.get(username);
+        if (index == null) {
+            return snapshot.page(snapshot.entries.size(), 0);
+        }
+        int from = Math.max(0, index - radius);
+        return snapshot.page(from, index - from + radius + 1);
+    }
+
+    private Snapshot snapshot(String contestId) {
+        ContestBoard board = leaderboardService.board(contestId);
+        if (board == null) {
+            return new Snapshot(null, 0, List.of());
+        }
+        Snapshot current = snapshots.get(contestId);
+        if (current != null && current.isUsable(board)) {
+            return current;
+        }
+        return snapshots.compute(contestId, (id, existing) -> existing != null && existing.isUsable(board) ? existing : take(board));
+    }
+
+    private Snapshot take(ContestBoard board) {
+        // verdicts wait on the board while the standings are copied, never while they are serialized
+        synchronized (board) {
+            return new Snapshot(board, board.getVersion(), board.page(0, Integer.MAX_VALUE));
+        }
+    }
+
+    private LeaderboardPage render(long version, List<LeaderboardEntry> entries, int total) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(entries);
+            return new LeaderboardPage(version, total, etag(json), json, json.length >= GZIP_MIN_BYTES ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the leaderboard", e);
+        }
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private final class Snapshot {
+
+        private final ContestBoard board;
+        private final long version;
+        private final long takenAt = System.nanoTime();
+        private final List<LeaderboardEntry> entries;
+        private final Map<String, Integer> ranks;
+        private final Map<Long, LeaderboardPage> pages = new ConcurrentHashMap<>();
+
+        Snapshot(ContestBoard board, long version, List<LeaderboardEntry> entries) {
+            this.board = board;
+            this.version = version;
+            this.entries = entries;
+            this.ranks = new HashMap<>(entries.size() * 2);
+            for (int i = 0; i < entries.size(); i++) {
+                ranks.put(entries.get(i).getUsername(), i);
+            }
+        }
+
+        /**
+         * Still the board being served (not rebuilt since), and either current or too young to replace.
+         */
+        boolean isUsable(ContestBoard live) {
+            return board == live && (version == live.getVersion() || System.nanoTime() - takenAt < maxAgeNanos);
+        }
+
+        LeaderboardPage page(int from, int limit) {
+            int start = Math.min(from, entries.size());
+            int end = (int) Math.min(entries.size(), (long) start + limit);
+            long key = ((long) start << 32) | end;
+            LeaderboardPage page = pages.get(key);
+            if (page != null) {
+                return page;
+            }
+            if (pages.size() >= maxPages) {
+                // an unusual slice, such as a long tail of distinct around-me windows; serve it without keeping it
+                return render(version, entries.subList(start, end), entries.size());
+            }
+            return pages.computeIfAbsent(key, k -> render(version, entries.subList(start, end), entries.size()));
+        }
+    }
+}
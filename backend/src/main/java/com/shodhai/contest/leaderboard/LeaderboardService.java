@@ -0,0 +1,142 @@
+package com.shodhai.contest.leaderboard;
+
+import com.shodhai.contest.config.ConditionalOnApi;
+import com.shodhai.contest.dto.LeaderboardEntry;
+import com.shodhai.contest.entity.Contest;
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.event.LeaderboardChangedEvent;
+import com.shodhai.contest.event.SubmissionJudgedEvent;
+import com.shodhai.contest.metrics.JudgeMetrics;
+import com.shodhai.contest.repository.ContestRepository;
+import com.shodhai.contest.repository.LeaderboardAttempt;
+import com.shodhai.contest.repository.SubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@ConditionalOnApi
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+
+    private static final Set<SubmissionStatus> COUNTED = countedStatuses();
+
+    private final ContestRepository contestRepository;
+    private final SubmissionRepository submissionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JudgeMetrics metrics;
+    private final Map<String, ContestBoard> boards = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildAll() {
+        for (Contest contest : contestRepository.findAll()) {
+            // a board already built on first use has verdicts applied since, and clients may hold its versions
+            boards.computeIfAbsent(contest.getId(), id -> build(contest));
+        }
+        log.info("Rebuilt leaderboards for {} contests", boards.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (event.isSampleOnly()) {
+            return;
+        }
+        ContestBoard board;
+        while ((board = board(event.getContestId())) != null) {
+            // Publishing under the board's lock keeps change events in version order.
+            synchronized (board) {
+                if (boards.get(event.getContestId()) != board) {
+                    // rebuilt while this verdict waited for the lock; the new board may not have it yet
+                    continue;
+                }
+                applyVerdict(board, event);
+                return;
+            }
+        }
+    }
+
+    private void applyVerdict(ContestBoard board, SubmissionJudgedEvent event) {
+        long start = System.nanoTime();
+        ContestBoard.BoardChange change = board.apply(event.getSubmissionId(), event.getUsername(),
+            event.getProblemId(), event.getStatus(), event.getSubmittedAt());
+        metrics.recordLeaderboardUpdate(System.nanoTime() - start);
+        if (change != null) {
+            eventPublisher.publishEvent(new LeaderboardChangedEvent(event.getContestId(), change.version(),
+                change.username(), change.previousRank(), change.entry()));
+        }
+    }
+
+    /**
+     * Board version and top entries read together, so a stream client can apply later changes on top of them.
+     */
+    public LeaderboardSnapshot getSnapshot(String contestId, Integer limit) {
+        ContestBoard board = board(contestId);
+        if (board == null) {
+            return new LeaderboardSnapshot(0, List.of());
+        }
+        synchronized (board) {
+            return new LeaderboardSnapshot(board.getVersion(), board.page(0, limit == null ? Integer.MAX_VALUE : limit));
+        }
+    }
+
+    /**
+     * Replaces a contest's board with one read afresh from the database. The old board stays locked until it has
+     * been replaced, so a verdict waiting on it is applied to the new board instead, and the new board's versions
+     * continue from the old one's.
+     */
+    public void rebuild(String contestId) {
+        Contest contest = contestRepository.findById(contestId).orElse(null);
+        if (contest == null) {
+            return;
+        }
+        while (true) {
+            ContestBoard current = boards.computeIfAbsent(contestId, id -> build(contest));
+            synchronized (current) {
+                ContestBoard fresh = build(contest);
+                fresh.continueFrom(current.getVersion());
+                if (boards.replace(contestId, current, fresh)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    ContestBoard board(String contestId) {
+        ContestBoard board = boards.get(contestId);
+        if (board != null) {
+            return board;
+        }
+        return contestRepository.findById(contestId)
+            .map(contest -> boards.computeIfAbsent(contestId, id -> build(contest)))
+            .orElse(null);
+    }
+
+    private static Set<SubmissionStatus> countedStatuses() {
+        Set<SubmissionStatus> statuses = EnumSet.copyOf(ContestBoard.WRONG_VERDICTS);
+        statuses.add(SubmissionStatus.ACCEPTED);
+        return statuses;
+    }
+
+    private ContestBoard build(Contest contest) {
+        long start = System.nanoTime();
+        ContestBoard board = new ContestBoard(contest.getStartTime());
+        List<LeaderboardAttempt> attempts = submissionRepository.findLeaderboardAttempts(contest.getId(), COUNTED);
+        for (LeaderboardAttempt attempt : attempts) {
+            board.apply(attempt.getId(), attempt.getUsername(), attempt.getProblemId(), attempt.getStatus(), attempt.getSubmittedAt());
+        }
+        metrics.recordLeaderboardRebuild(System.nanoTime() - start);
+        return board;
+    }
+}
@@ -0,0 +1,13 @@
+package com.shodhai.contest.leaderboard;
+
+import com.shodhai.contest.dto.LeaderboardEntry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LeaderboardSnapshot {
+    private long version;
+    private List<LeaderboardEntry> entries;
+}
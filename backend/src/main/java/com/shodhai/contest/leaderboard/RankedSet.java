@@ -0,0 +1,172 @@
+package com.shodhai.contest.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set with O(log n) insert, remove, rank-of and element-at-rank, implemented as a treap whose nodes carry
+ * subtree sizes. Not thread-safe.
+ */
+public class RankedSet<T> {
+
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+
+    public RankedSet(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public void add(T value) {
+        root = insert(root, new Node<>(value));
+    }
+
+    public void remove(T value) {
+        root = delete(root, value);
+    }
+
+    /**
+     * Zero-based position of the value, or -1 if it is not in the set.
+     */
+    public int rankOf(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(value, node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    public T get(int index) {
+        Node<T> node = root;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+        throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    /**
+     * Elements at positions [from, from + limit), in order.
+     */
+    public List<T> range(int from, int limit) {
+        List<T> result = new ArrayList<>(Math.max(0, Math.min(limit, size() - from)));
+        collect(root, from, from + limit, 0, result);
+        return result;
+    }
+
+    private void collect(Node<T> node, int from, int to, int offset, List<T> out) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int position = offset + size(node.left);
+        collect(node.left, from, to, offset, out);
+        if (position >= from && position < to) {
+            out.add(node.value);
+        }
+        collect(node.right, from, to, position + 1, out);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (comparator.compare(fresh.value, node.value) < 0) {
+            node.left = insert(node.left, fresh);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, fresh);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    private Node<T> delete(Node<T> node, T value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = comparator.compare(value, node.value);
+        if (cmp < 0) {
+            node.left = delete(node.left, value);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, value);
+        } else {
+            return merge(node.left, node.right);
+        }
+        return update(node);
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = update(node);
+        return update(pivot);
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = update(node);
+        return update(pivot);
+    }
+
+    private Node<T> update(Node<T> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node<T> left;
+        private Node<T> right;
+        private int size = 1;
+
+        Node(T value) {
+            this.value = value;
+        }
+    }
+}
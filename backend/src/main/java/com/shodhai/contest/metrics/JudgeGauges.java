@@ -0,0 +1,48 @@
+package com.shodhai.contest.metrics;
+
+import com.shodhai.contest.config.ConditionalOnJudging;
+import com.shodhai.contest.sandbox.SandboxPool;
+import com.shodhai.contest.service.JudgeScheduler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges sampled from the scheduler and sandbox pool whenever metrics are scraped.
+ */
+@Component
+@ConditionalOnJudging
+@RequiredArgsConstructor
+public class JudgeGauges implements MeterBinder {
+
+    private final JudgeScheduler judgeScheduler;
+    private final SandboxPool sandboxPool;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("judge.queue.depth", judgeScheduler, JudgeScheduler::getQueueDepth)
+            .description("Submissions waiting for a judge worker on this node")
+            .register(registry);
+        Gauge.builder("judge.workers.busy", judgeScheduler, JudgeScheduler::getBusyWorkers)
+            .description("Judge workers currently judging")
+            .register(registry);
+        Gauge.builder("judge.workers.total", judgeScheduler, JudgeScheduler::getWorkerCount)
+            .register(registry);
+        Gauge.builder("judge.sandbox.capacity", sandboxPool, SandboxPool::getCapacity)
+            .description("Sandboxes in the pool, leased or idle")
+            .register(registry);
+        Gauge.builder("judge.sandbox.available", sandboxPool, SandboxPool::getAvailable)
+            .description("Idle sandboxes ready to lease")
+            .register(registry);
+        Gauge.builder("judge.sandbox.utilization", sandboxPool, JudgeGauges::utilization)
+            .description("Fraction of the sandbox pool currently leased")
+            .register(registry);
+    }
+
+    private static double utilization(SandboxPool pool) {
+        int capacity = pool.getCapacity();
+        return capacity == 0 ? 0 : (double) (capacity - pool.getAvailable()) / capacity;
+    }
+}
@@ -0,0 +1,115 @@
+package com.shodhai.contest.metrics;
+
+import com.shodhai.contest.entity.SubmissionStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the judging pipeline. Gauges over live state are registered by {@link JudgeGauges}.
+ */
+@Component
+@RequiredArgsConstructor
+public class JudgeMetrics {
+
+    private final MeterRegistry registry;
+
+    public void recordQueueWait(long millis) {
+        Timer.builder("judge.queue.wait")
+            .description("Time from enqueueing a submission until a worker picks it up")
+            .register(registry)
+            .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordSandboxAcquire(long nanos) {
+        Timer.builder("judge.sandbox.acquire")
+            .description("Time spent waiting for an idle sandbox")
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSandboxStart(String type, long nanos) {
+        Timer.builder("judge.sandbox.start")
+            .description("Time to create a fresh sandbox, such as starting a judge container")
+            .tag("type", type)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCompile(String language, String outcome, long nanos) {
+        Timer.builder("judge.compile")
+            .description("Compilation time")
+            .tag("language", tag(language))
+            .tag("outcome", outcome)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTestRun(String language, SubmissionStatus status, long wallMillis) {
+        Timer.builder("judge.test.run")
+            .description("Wall clock time of a single test run")
+            .tag("language", tag(language))
+            .tag("status", status.name())
+            .register(registry)
+            .record(wallMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordCacheLookup(String cache, boolean hit) {
+        registry.counter("judge.cache.lookups", "cache", cache, "result", hit ? "hit" : "miss").increment();
+    }
+
+    public void recordTestsRun(String order, int tests) {
+        DistributionSummary.builder("judge.tests.run")
+            .description("Tests executed per judging before a verdict was reached")
+            .tag("order", order)
+            .maximumExpectedValue(1000.0)
+            .register(registry)
+            .record(tests);
+    }
+
+    public void recordVerdict(String language, SubmissionStatus status) {
+        registry.counter("judge.verdicts", "language", tag(language), "status", status.name()).increment();
+    }
+
+    public void recordJudging(String language, long millis) {
+        Timer.builder("judge.submission")
+            .description("Time from claiming a submission until its verdict is stored")
+            .tag("language", tag(language))
+            .register(registry)
+            .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordLeaderboardUpdate(long nanos) {
+        Timer.builder("leaderboard.update")
+            .description("Time to apply one verdict to a contest leaderboard")
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLeaderboardRebuild(long nanos) {
+        Timer.builder("leaderboard.rebuild")
+            .description("Time to rebuild a contest leaderboard from stored submissions")
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // an unknown language must not create a new time series per request
+    private static String tag(String language) {
+        if (language == null) {
+            return "unknown";
+        }
+        String normalized = language.toLowerCase(Locale.ROOT);
+        switch (normalized) {
+            case "java":
+            case "python":
+            case "cpp":
+                return normalized;
+            default:
+                return "other";
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.shodhai.contest.metrics;
+
+import com.shodhai.contest.entity.SubmissionStatus;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage timings of one judging, in the order the stages ran. Each {@link #lap} measures from the end of the
+ * previous stage, so the laps add up to the total; the queue wait before the trace started comes on top.
+ */
+public class JudgeTrace {
+
+    private final Long submissionId;
+    private final Instant startedAt = Instant.now();
+    private final Map<String, Long> stageMillis = new LinkedHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private long markNanos = startNanos;
+    private long totalMillis = -1;
+    private SubmissionStatus status;
+
+    public JudgeTrace(Long submissionId) {
+        this.submissionId = submissionId;
+    }
+
+    /**
+     * Records a stage measured elsewhere, such as the queue wait before this trace started.
+     */
+    public synchronized void record(String stage, long millis) {
+        stageMillis.merge(stage, millis, Long::sum);
+    }
+
+    /**
+     * Records the time since the previous lap under the given stage.
+     */
+    public synchronized long lap(String stage) {
+        long now = System.nanoTime();
+        long millis = TimeUnit.NANOSECONDS.toMillis(now - markNanos);
+        markNanos = now;
+        stageMillis.merge(stage, millis, Long::sum);
+        return millis;
+    }
+
+    public synchronized void finish(SubmissionStatus status) {
+        this.status = status;
+    }
+
+    synchronized void close() {
+        totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public Long getSubmissionId() {
+        return submissionId;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public synchronized Map<String, Long> getStageMillis() {
+        return new LinkedHashMap<>(stageMillis);
+    }
+
+    public synchronized long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public synchronized SubmissionStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder text = new StringBuilder();
+        stageMillis.forEach((stage, millis) -> text.append(text.length() == 0 ? "" : ", ").append(stage).append('=').append(millis));
+        return text.toString();
+    }
+}
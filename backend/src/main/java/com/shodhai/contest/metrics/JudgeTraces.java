@@ -0,0 +1,40 @@
+package com.shodhai.contest.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the stage traces of the most recently judged submissions on this node.
+ */
+@Component
+@Slf4j
+public class JudgeTraces {
+
+    private final Map<Long, JudgeTrace> traces;
+
+    public JudgeTraces(@Value("${judge.trace.capacity:1000}") int capacity) {
+        this.traces = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, JudgeTrace> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public void add(JudgeTrace trace) {
+        trace.close();
+        log.info("Judged submission {} as {} in {} ms ({})", trace.getSubmissionId(), trace.getStatus(), trace.getTotalMillis(), trace);
+        synchronized (traces) {
+            traces.put(trace.getSubmissionId(), trace);
+        }
+    }
+
+    public JudgeTrace get(Long submissionId) {
+        synchronized (traces) {
+            return traces.get(submissionId);
+        }
+    }
+}
@@ -1,4 +1,7 @@
 package com.shodhai.contest.repository;
 import com.shodhai.contest.entity.Contest;
 import org.springframework.data.jpa.repository.JpaRepository;
-public interface ContestRepository extends JpaRepository<Contest, String> {}
+import java.util.Optional;
+public interface ContestRepository extends JpaRepository<Contest, String> {
+    Optional<ContestSummary> findSummaryById(String id);
+}
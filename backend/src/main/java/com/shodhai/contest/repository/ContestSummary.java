@@ -0,0 +1,9 @@
+package com.shodhai.contest.repository;
+import java.time.LocalDateTime;
+public interface ContestSummary {
+    String getId();
+    String getName();
+    String getDescription();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+}
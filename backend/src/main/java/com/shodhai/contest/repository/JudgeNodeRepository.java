@@ -0,0 +1,8 @@
+package com.shodhai.contest.repository;
+import com.shodhai.contest.entity.JudgeNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+public interface JudgeNodeRepository extends JpaRepository<JudgeNode, String> {
+    List<JudgeNode> findByHeartbeatAtAfterOrderById(LocalDateTime since);
+}
@@ -0,0 +1,14 @@
+package com.shodhai.contest.repository;
+import com.shodhai.contest.entity.SubmissionStatus;
+import java.time.LocalDateTime;
+public interface JudgedSubmission {
+    Long getId();
+    String getContestId();
+    String getProblemId();
+    String getUsername();
+    SubmissionStatus getStatus();
+    String getVerdict();
+    LocalDateTime getSubmittedAt();
+    boolean isSampleOnly();
+    LocalDateTime getJudgedAt();
+}
@@ -0,0 +1,10 @@
+package com.shodhai.contest.repository;
+import com.shodhai.contest.entity.SubmissionStatus;
+import java.time.LocalDateTime;
+public interface LeaderboardAttempt {
+    Long getId();
+    String getUsername();
+    String getProblemId();
+    SubmissionStatus getStatus();
+    LocalDateTime getSubmittedAt();
+}
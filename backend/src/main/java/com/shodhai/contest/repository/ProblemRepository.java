@@ -1,7 +1,13 @@
 package com.shodhai.contest.repository;
 import com.shodhai.contest.entity.Problem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import java.util.List;
+import java.util.Optional;
 public interface ProblemRepository extends JpaRepository<Problem, String> {
     List<Problem> findByContestId(String contestId);
+    List<ProblemTitle> findTitlesByContestIdOrderById(String contestId);
+    @Query("SELECT p.id AS id, p.contest.id AS contestId, p.title AS title, p.statement AS statement, p.inputFormat AS inputFormat, " +
+           "p.outputFormat AS outputFormat, p.timeLimitMs AS timeLimitMs, p.memoryLimitMb AS memoryLimitMb FROM Problem p WHERE p.id = :id")
+    Optional<ProblemView> findViewById(String id);
 }
@@ -0,0 +1,5 @@
+package com.shodhai.contest.repository;
+public interface ProblemTitle {
+    String getId();
+    String getTitle();
+}
@@ -0,0 +1,11 @@
+package com.shodhai.contest.repository;
+public interface ProblemView {
+    String getId();
+    String getContestId();
+    String getTitle();
+    String getStatement();
+    String getInputFormat();
+    String getOutputFormat();
+    Integer getTimeLimitMs();
+    Integer getMemoryLimitMb();
+}
@@ -0,0 +1,7 @@
+package com.shodhai.contest.repository;
+public interface QueuedSubmission {
+    Long getId();
+    String getUsername();
+    boolean isSampleOnly();
+    boolean isRejudge();
+}
@@ -0,0 +1,5 @@
+package com.shodhai.contest.repository;
+public interface SampleTestData {
+    String getInputHash();
+    String getExpectedOutputHash();
+}
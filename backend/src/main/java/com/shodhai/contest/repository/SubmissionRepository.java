@@ -1,11 +1,54 @@
 package com.shodhai.contest.repository;
 import com.shodhai.contest.entity.Submission;
 import com.shodhai.contest.entity.SubmissionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     List<Submission> findByStatus(SubmissionStatus status);
-    @Query("SELECT s FROM Submission s WHERE s.problem.contest.id = :contestId AND s.status = 'ACCEPTED'")
-    List<Submission> findAcceptedSubmissionsByContest(String contestId);
+    Optional<SubmissionStatusView> findStatusById(Long id);
+    @Query("SELECT s.id AS id, s.user.username AS username, s.problem.id AS problemId, s.status AS status, s.submittedAt AS submittedAt " +
+           "FROM Submission s WHERE s.problem.contest.id = :contestId AND s.sampleOnly = false AND s.status IN :statuses")
+    List<LeaderboardAttempt> findLeaderboardAttempts(String contestId, Collection<SubmissionStatus> statuses);
+    @Query("SELECT s.id AS id, s.user.username AS username, s.sampleOnly AS sampleOnly, s.rejudge AS rejudge FROM Submission s " +
+           "WHERE s.status = 'PENDING' OR (s.status = 'RUNNING' AND (s.leaseExpiresAt IS NULL OR s.leaseExpiresAt < :now)) " +
+           "ORDER BY s.rejudge, s.sampleOnly DESC, s.id")
+    List<QueuedSubmission> findClaimable(LocalDateTime now, Pageable pageable);
+    @Query("SELECT COUNT(s) FROM Submission s " +
+           "WHERE s.status = 'PENDING' OR (s.status = 'RUNNING' AND (s.leaseExpiresAt IS NULL OR s.leaseExpiresAt < :now))")
+    long countClaimable(LocalDateTime now);
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = 'RUNNING', s.leaseOwner = :owner, s.leaseExpiresAt = :expiresAt, s.attempts = s.attempts + 1 " +
+           "WHERE s.id = :id AND (s.status = 'PENDING' OR (s.status = 'RUNNING' AND (s.leaseExpiresAt IS NULL OR s.leaseExpiresAt < :now)))")
+    int claim(Long id, String owner, LocalDateTime now, LocalDateTime expiresAt);
+    @Query("SELECT s FROM Submission s JOIN FETCH s.user JOIN FETCH s.problem p JOIN FETCH p.contest LEFT JOIN FETCH p.testCases WHERE s.id = :id")
+    Optional<Submission> findForJudging(Long id);
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = :status, s.verdict = :verdict, s.output = :output, s.executionTime = :executionTime, " +
+           "s.memoryUsed = :memoryUsed, s.leaseOwner = NULL, s.leaseExpiresAt = NULL, s.rejudge = false, s.judgedAt = CURRENT_TIMESTAMP WHERE s.id = :id AND s.status = 'RUNNING' AND s.leaseOwner = :owner")
+    int completeJudging(Long id, String owner, SubmissionStatus status, String verdict, String output, Integer executionTime, Integer memoryUsed);
+    @Modifying
+    @Query("UPDATE Submission s SET s.leaseExpiresAt = :expiresAt WHERE s.id IN :ids AND s.leaseOwner = :owner AND s.status = 'RUNNING'")
+    int renewLeases(Collection<Long> ids, String owner, LocalDateTime expiresAt);
+    @Query("SELECT s.id FROM Submission s WHERE s.id > :afterId AND s.status NOT IN ('PENDING', 'RUNNING') " +
+           "AND (:contestId IS NULL OR s.problem.contest.id = :contestId) AND (:problemId IS NULL OR s.problem.id = :problemId) " +
+           "AND (:username IS NULL OR s.user.username = :username) AND (:status IS NULL OR s.status = :status) ORDER BY s.id")
+    List<Long> findRejudgeIds(Long afterId, String contestId, String problemId, String username, SubmissionStatus status, Pageable pageable);
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = 'PENDING', s.rejudge = true, s.verdict = NULL, s.output = NULL, s.executionTime = NULL, " +
+           "s.memoryUsed = NULL, s.leaseOwner = NULL, s.leaseExpiresAt = NULL, s.attempts = 0 " +
+           "WHERE s.id IN :ids AND s.status NOT IN ('PENDING', 'RUNNING')")
+    int requeueForRejudge(Collection<Long> ids);
+    long countByRejudgeTrueAndStatusIn(Collection<SubmissionStatus> statuses);
+    @Query("SELECT s.id AS id, s.problem.contest.id AS contestId, s.problem.id AS problemId, s.user.username AS username, " +
+           "s.status AS status, s.verdict AS verdict, s.submittedAt AS submittedAt, s.sampleOnly AS sampleOnly, s.judgedAt AS judgedAt " +
+           "FROM Submission s WHERE s.judgedAt > :from OR (s.judgedAt = :from AND s.id > :afterId) ORDER BY s.judgedAt, s.id")
+    List<JudgedSubmission> findJudgedAfter(LocalDateTime from, Long afterId, Pageable pageable);
+    @Query("SELECT MAX(s.judgedAt) FROM Submission s")
+    Optional<LocalDateTime> findLatestJudgedAt();
 }
@@ -0,0 +1,12 @@
+package com.shodhai.contest.repository;
+import com.shodhai.contest.entity.SubmissionStatus;
+import java.time.LocalDateTime;
+public interface SubmissionStatusView {
+    Long getId();
+    SubmissionStatus getStatus();
+    String getVerdict();
+    String getOutput();
+    LocalDateTime getSubmittedAt();
+    Integer getExecutionTime();
+    Integer getMemoryUsed();
+}
@@ -0,0 +1,19 @@
+package com.shodhai.contest.repository;
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.entity.SubmissionTestResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
+import java.util.List;
+public interface SubmissionTestResultRepository extends JpaRepository<SubmissionTestResult, Long> {
+    List<SubmissionTestResult> findBySubmissionIdOrderByTestIndex(Long submissionId);
+    @Query("SELECT r.testCaseId AS testCaseId, COUNT(r) AS runs, " +
+           "SUM(CASE WHEN r.status = :accepted THEN 0 ELSE 1 END) AS failures, AVG(r.cpuTimeMillis) AS averageCpuMillis " +
+           "FROM SubmissionTestResult r WHERE r.testCaseId IS NOT NULL GROUP BY r.testCaseId")
+    List<TestCaseOutcomes> summarizeByTestCase(SubmissionStatus accepted);
+    @Modifying
+    @Query("DELETE FROM SubmissionTestResult r WHERE r.submissionId IN " +
+           "(SELECT s.id FROM Submission s WHERE s.id IN :submissionIds AND s.status = 'PENDING' AND s.rejudge = true)")
+    int deleteForQueuedRejudges(Collection<Long> submissionIds);
+}
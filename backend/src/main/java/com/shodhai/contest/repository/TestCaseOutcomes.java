@@ -0,0 +1,7 @@
+package com.shodhai.contest.repository;
+public interface TestCaseOutcomes {
+    Long getTestCaseId();
+    Long getRuns();
+    Long getFailures();
+    Double getAverageCpuMillis();
+}
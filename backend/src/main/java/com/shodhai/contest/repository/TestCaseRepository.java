@@ -0,0 +1,13 @@
+package com.shodhai.contest.repository;
+import com.shodhai.contest.entity.TestCase;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
+public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
+    List<TestCase> findByProblemIdOrderById(String problemId);
+    @Query("SELECT t.inputHash AS inputHash, t.expectedOutputHash AS expectedOutputHash FROM TestCase t " +
+           "WHERE t.problem.id = :problemId AND t.isSample = true ORDER BY t.id")
+    List<SampleTestData> findSamplesByProblemId(String problemId);
+    @Query("SELECT t.expectedOutputHash FROM TestCase t WHERE t.inputHash = :inputHash")
+    List<String> findExpectedOutputHashesByInputHash(String inputHash);
+}
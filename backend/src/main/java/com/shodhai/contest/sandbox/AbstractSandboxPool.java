@@ -0,0 +1,161 @@
+package com.shodhai.contest.sandbox;
+
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+public abstract class AbstractSandboxPool<S extends Sandbox> implements SandboxPool {
+
+    // the resource usage line sits at the very end of stderr, well inside the tail
+    private static final int STDERR_HEAD_BYTES = 4096;
+    private static final int STDERR_TAIL_BYTES = 4096;
+    private static final long DRAIN_GRACE_MILLIS = 1000;
+
+    private static final ExecutorService DRAINERS = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "sandbox-stderr");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final BlockingQueue<S> idle = new LinkedBlockingQueue<>();
+
+    private volatile int capacity;
+
+    protected void register(S sandbox) {
+        idle.add(sandbox);
+        capacity++;
+    }
+
+    protected void replace(S broken) {
+        try {
+            idle.add(create(broken));
+        } catch (Exception e) {
+            capacity--;
+            log.error("Could not replace sandbox {}, pool shrinks to {}: {}", broken.getId(), capacity, e.getMessage());
+        }
+    }
+
+    /**
+     * Creates a fresh sandbox that takes over the slot of the given one.
+     */
+    protected abstract S create(S previous) throws IOException, InterruptedException;
+
+    /**
+     * Wipes processes and files left behind by the previous lease. Returns false if the sandbox must be replaced.
+     */
+    protected abstract boolean reset(S sandbox);
+
+    @Override
+    public Sandbox acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        S sandbox = idle.poll(timeout, unit);
+        if (sandbox == null) {
+            throw new IllegalStateException("No sandbox became available within " + unit.toSeconds(timeout) + " seconds");
+        }
+        return sandbox;
+    }
+
+    @Override
+    public Sandbox tryAcquire() {
+        return idle.poll();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void release(Sandbox sandbox) {
+        S owned = (S) sandbox;
+        if (reset(owned)) {
+            idle.add(owned);
+        } else {
+            log.warn("Sandbox {} failed to reset, replacing it", sandbox.getId());
+            replace(owned);
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getAvailable() {
+        return idle.size();
+    }
+
+    protected S pollIdle() {
+        return idle.poll();
+    }
+
+    protected void returnIdle(S sandbox) {
+        idle.add(sandbox);
+    }
+
+    /**
+     * Waits through {@link Process#onExit()} rather than {@link Process#waitFor}, whose monitor wait would pin the
+     * carrier thread of a virtual thread for the whole run.
+     */
+    private static boolean awaitExit(Process process, long timeoutMillis) throws IOException, InterruptedException {
+        try {
+            process.onExit().get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IOException("Waiting for process failed", e.getCause());
+        }
+    }
+
+    /**
+     * Runs a command while a pooled thread drains its stderr, so a noisy command can never block on a full pipe.
+     * Only the head and tail of stderr are kept.
+     */
+    protected static ExecResult run(ProcessBuilder pb, long timeoutMillis) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = pb.start();
+        OutputCapture stderr = new OutputCapture(STDERR_HEAD_BYTES, STDERR_TAIL_BYTES);
+        Future<?> drain = DRAINERS.submit(() -> {
+            OutputCapture.drain(process.getErrorStream(), stderr);
+            return null;
+        });
+        try {
+            boolean finished = awaitExit(process, timeoutMillis);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            if (!finished) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+                drain.cancel(true);
+                return new ExecResult(-1, true, elapsed, "");
+            }
+
+            awaitDrain(drain);
+            return new ExecResult(process.exitValue(), false, elapsed, stderr.toString());
+        } catch (InterruptedException e) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+            drain.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits briefly for stderr to reach its end. A background process that inherited the pipe can hold it open past
+     * the command's exit; it dies with the sandbox reset, and the result keeps whatever arrived until then.
+     */
+    private static void awaitDrain(Future<?> drain) throws InterruptedException {
+        try {
+            drain.get(DRAIN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("stderr still open {} ms after exit, using what was read", DRAIN_GRACE_MILLIS);
+        } catch (ExecutionException e) {
+            log.warn("Reading stderr failed: {}", e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.shodhai.contest.sandbox;
+
+import com.shodhai.contest.config.ConditionalOnJudging;
+import com.shodhai.contest.metrics.JudgeMetrics;
+import com.shodhai.contest.testdata.TestDataKind;
+import com.shodhai.contest.testdata.TestDataStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Component
+@ConditionalOnJudging
+@ConditionalOnProperty(name = "judge.sandbox.type", havingValue = "docker", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DockerSandboxPool extends AbstractSandboxPool<DockerSandboxPool.DockerSandbox> {
+
+    private static final long CONTROL_TIMEOUT_MILLIS = 15_000;
+    private static final String TEST_DATA_MOUNT = "/testdata";
+
+    private final TestDataStore testDataStore;
+    private final JudgeMetrics metrics;
+
+    @Value("${judge.docker.image:shodh-judge:latest}")
+    private String dockerImage;
+
+    @Value("${judge.docker.memory:256m}")
+    private String memoryLimit;
+
+    @Value("${judge.docker.cpus:0.5}")
+    private String cpuLimit;
+
+    @Value("${judge.docker.pool-size:4}")
+    private int poolSize;
+
+    @Value("${judge.docker.container-prefix:shodh-judge}")
+    private String containerPrefix;
+
+    @Value("${judge.workdir:/tmp/shodh-code}")
+    private String workRoot;
+
+    private final List<DockerSandbox> all = new ArrayList<>();
+
+    @PostConstruct
+    public void start() throws IOException, InterruptedException {
+        for (int i = 0; i < poolSize; i++) {
+            DockerSandbox sandbox = startContainer(containerPrefix + "-" + i);
+            all.add(sandbox);
+            register(sandbox);
+        }
+        log.info("Started {} judge containers from {}", poolSize, dockerImage);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (DockerSandbox sandbox : all) {
+            try {
+                run(new ProcessBuilder("docker", "rm", "-f", sandbox.getId()), CONTROL_TIMEOUT_MILLIS);
+            } catch (Exception e) {
+                log.warn("Failed to remove container {}: {}", sandbox.getId(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${judge.docker.health-check-interval:30000}")
+    public void checkHealth() {
+        int idleCount = getAvailable();
+        for (int i = 0; i < idleCount; i++) {
+            DockerSandbox sandbox = pollIdle();
+            if (sandbox == null) {
+                return;
+            }
+            if (isHealthy(sandbox)) {
+                returnIdle(sandbox);
+            } else {
+                log.warn("Container {} failed its health check, replacing it", sandbox.getId());
+                replace(sandbox);
+            }
+        }
+    }
+
+    @Override
+    protected DockerSandbox create(DockerSandbox previous) throws IOException, InterruptedException {
+        DockerSandbox sandbox = startContainer(previous.getId());
+        all.replaceAll(existing -> existing == previous ? sandbox : existing);
+        return sandbox;
+    }
+
+    @Override
+    protected boolean reset(DockerSandbox sandbox) {
+        try {
+            // kill -9 -1 reaches every process except PID 1 and the shell itself
+            ExecResult result = run(new ProcessBuilder("docker", "exec", sandbox.getId(), "sh", "-c",
+                "kill -9 -1 2>/dev/null; rm -rf /code/* /code/.[!.]* /tmp/* 2>/dev/null; true"), CONTROL_TIMEOUT_MILLIS);
+            WorkDirectories.clean(sandbox.getWorkDir());
+            return result.getExitCode() == 0 && WorkDirectories.isEmpty(sandbox.getWorkDir());
+        } catch (Exception e) {
+            log.warn("Reset of {} failed: {}", sandbox.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isHealthy(DockerSandbox sandbox) {
+        try {
+            return run(new ProcessBuilder("docker", "exec", sandbox.getId(), "true"), CONTROL_TIMEOUT_MILLIS).getExitCode() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private DockerSandbox startContainer(String name) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Path workDir = Paths.get(workRoot, name);
+        Files.createDirectories(workDir);
+        WorkDirectories.clean(workDir);
+
+        run(new ProcessBuilder("docker", "rm", "-f", name), CONTROL_TIMEOUT_MILLIS);
+        ExecResult result = run(new ProcessBuilder(
+            "docker", "run", "-d", "--name", name,
+            "--network=none", "--memory=" + memoryLimit, "--cpus=" + cpuLimit,
+            "-v", workDir + ":/code", "-w", "/code",
+            "-v", testDataStore.root(TestDataKind.INPUT) + ":" + TEST_DATA_MOUNT + ":ro",
+            dockerImage, "tail", "-f", "/dev/null"), CONTROL_TIMEOUT_MILLIS);
+        if (result.getExitCode() != 0) {
+            throw new IOException("Failed to start judge container " + name + ": " + result.getErrorOutput());
+        }
+        metrics.recordSandboxStart("docker", System.nanoTime() - start);
+        return new DockerSandbox(name, workDir, testDataStore.root(TestDataKind.INPUT));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class DockerSandbox implements Sandbox {
+
+        private final String id;
+        private final Path workDir;
+        private final Path testDataRoot;
+
+        @Override
+        public String visiblePath(Path hostPath) {
+            if (hostPath.startsWith(workDir)) {
+                return "/code/" + workDir.relativize(hostPath);
+            }
+            if (hostPath.startsWith(testDataRoot)) {
+                return TEST_DATA_MOUNT + "/" + testDataRoot.relativize(hostPath);
+            }
+            throw new IllegalArgumentException(hostPath + " is not visible inside container " + id);
+        }
+
+        @Override
+        public ExecResult exec(String command, long timeoutMillis) throws IOException, InterruptedException {
+            // timeout(1) kills the command inside the container, the outer wait only guards the docker client
+            String seconds = String.format(Locale.ROOT, "%.3f", timeoutMillis / 1000.0);
+            ProcessBuilder pb = new ProcessBuilder("docker", "exec", "-w", "/code", id,
+                "timeout", "-s", "KILL", seconds, "sh", "-c", command);
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            ExecResult result = run(pb, timeoutMillis + CONTROL_TIMEOUT_MILLIS);
+            if (result.getExitCode() == 137 && result.getWallTimeMillis() >= timeoutMillis) {
+                result.setTimedOut(true);
+            }
+            return result;
+        }
+    }
+}
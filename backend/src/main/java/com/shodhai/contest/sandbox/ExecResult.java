@@ -0,0 +1,13 @@
+package com.shodhai.contest.sandbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ExecResult {
+    private int exitCode;
+    private boolean timedOut;
+    private long wallTimeMillis;
+    private String errorOutput;
+}
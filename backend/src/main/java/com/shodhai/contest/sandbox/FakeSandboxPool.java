@@ -0,0 +1,157 @@
+package com.shodhai.contest.sandbox;
+
+import com.shodhai.contest.config.ConditionalOnJudging;
+import com.shodhai.contest.metrics.JudgeMetrics;
+import com.shodhai.contest.repository.TestCaseRepository;
+import com.shodhai.contest.testdata.TestDataKind;
+import com.shodhai.contest.testdata.TestDataStore;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Simulates compiling and running instead of doing either, for load tests on machines without Docker. A run of
+ * accepted code copies the expected output of the test, found by its input hash, and every command takes a fixed
+ * simulated time. Source code picks another outcome with a marker such as {@code fake-verdict: WRONG_ANSWER}.
+ */
+@Component
+@ConditionalOnJudging
+@ConditionalOnProperty(name = "judge.sandbox.type", havingValue = "fake")
+@RequiredArgsConstructor
+@Slf4j
+public class FakeSandboxPool extends AbstractSandboxPool<FakeSandboxPool.FakeSandbox> {
+
+    private static final Pattern VERDICT_MARKER = Pattern.compile("fake-verdict:\\s*([A-Z_]+)");
+    private static final Pattern INPUT_REDIRECT = Pattern.compile("< (\\S+) > output\\.txt");
+    private static final List<String> SOURCE_FILES = List.of("Main.java", "main.cpp", "main.py");
+    private static final long SIMULATED_MEMORY_KB = 16 * 1024;
+
+    private final TestCaseRepository testCaseRepository;
+    private final TestDataStore testDataStore;
+    private final JudgeMetrics metrics;
+    private final Map<String, String> expectedByInput = new ConcurrentHashMap<>();
+
+    @Value("${judge.docker.pool-size:4}")
+    private int poolSize;
+
+    @Value("${judge.workdir:/tmp/shodh-code}")
+    private String workRoot;
+
+    @Value("${judge.fake.compile-millis:300}")
+    private long compileMillis;
+
+    @Value("${judge.fake.run-millis:30}")
+    private long runMillis;
+
+    @PostConstruct
+    public void start() throws IOException {
+        for (int i = 0; i < poolSize; i++) {
+            register(createSandbox("fake-" + i));
+        }
+        log.warn("Using {} fake sandboxes, submissions are not compiled or run", poolSize);
+    }
+
+    @Override
+    protected FakeSandbox create(FakeSandbox previous) throws IOException {
+        return createSandbox(previous.getId());
+    }
+
+    @Override
+    protected boolean reset(FakeSandbox sandbox) {
+        WorkDirectories.clean(sandbox.getWorkDir());
+        return true;
+    }
+
+    private FakeSandbox createSandbox(String id) throws IOException {
+        long start = System.nanoTime();
+        Path workDir = Paths.get(workRoot, id);
+        Files.createDirectories(workDir);
+        WorkDirectories.clean(workDir);
+        metrics.recordSandboxStart("fake", System.nanoTime() - start);
+        return new FakeSandbox(id, workDir);
+    }
+
+    private String expectedOutputHash(String inputHash) {
+        return expectedByInput.computeIfAbsent(inputHash, hash -> testCaseRepository.findExpectedOutputHashesByInputHash(hash)
+            .stream().findFirst().orElseThrow(() -> new IllegalStateException("No test case has input " + hash)));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public class FakeSandbox implements Sandbox {
+
+        private final String id;
+        private final Path workDir;
+
+        @Override
+        public String visiblePath(Path hostPath) {
+            return hostPath.toAbsolutePath().toString();
+        }
+
+        @Override
+        public ExecResult exec(String command, long timeoutMillis) throws IOException, InterruptedException {
+            String verdict = markedVerdict();
+            if (command.contains("> compile.log")) {
+                Thread.sleep(compileMillis);
+                if ("COMPILATION_ERROR".equals(verdict)) {
+                    Files.writeString(workDir.resolve("compile.log"), "Main.java:1: error: simulated compilation error\n");
+                    return new ExecResult(1, false, compileMillis, "");
+                }
+                return new ExecResult(0, false, compileMillis, "");
+            }
+            Matcher input = INPUT_REDIRECT.matcher(command);
+            if (!input.find()) {
+                return new ExecResult(0, false, 0, "");
+            }
+            if ("TIME_LIMIT_EXCEEDED".equals(verdict)) {
+                Thread.sleep(timeoutMillis);
+                return new ExecResult(137, true, timeoutMillis, "");
+            }
+            Thread.sleep(runMillis);
+            String usage = ResourceUsage.format(runMillis, runMillis, SIMULATED_MEMORY_KB);
+            switch (verdict == null ? "ACCEPTED" : verdict) {
+                case "MEMORY_LIMIT_EXCEEDED":
+                    return new ExecResult(137, false, runMillis, "");
+                case "OUTPUT_LIMIT_EXCEEDED":
+                    return new ExecResult(153, false, runMillis, usage);
+                case "RUNTIME_ERROR":
+                case "COMPILATION_ERROR": // interpreted languages have no compile step, so the error shows when run
+                    Files.writeString(workDir.resolve("output.txt"), "");
+                    return new ExecResult(1, false, runMillis, "simulated runtime error\n" + usage);
+                case "WRONG_ANSWER":
+                    Files.writeString(workDir.resolve("output.txt"), "simulated wrong answer\n");
+                    return new ExecResult(0, false, runMillis, usage);
+                default:
+                    String inputHash = Paths.get(input.group(1)).getFileName().toString();
+                    Files.copy(testDataStore.path(TestDataKind.OUTPUT, expectedOutputHash(inputHash)), workDir.resolve("output.txt"),
+                        StandardCopyOption.REPLACE_EXISTING);
+                    return new ExecResult(0, false, runMillis, usage);
+            }
+        }
+
+        private String markedVerdict() throws IOException {
+            for (String name : SOURCE_FILES) {
+                Path source = workDir.resolve(name);
+                if (Files.exists(source)) {
+                    Matcher marker = VERDICT_MARKER.matcher(Files.readString(source));
+                    return marker.find() ? marker.group(1) : null;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.shodhai.contest.sandbox;
+
+import com.shodhai.contest.config.ConditionalOnJudging;
+import com.shodhai.contest.metrics.JudgeMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs commands as plain host processes. There is no isolation, so this is only meant for tests and local development.
+ */
+@Component
+@ConditionalOnJudging
+@ConditionalOnProperty(name = "judge.sandbox.type", havingValue = "local")
+@RequiredArgsConstructor
+@Slf4j
+public class LocalSandboxPool extends AbstractSandboxPool<LocalSandboxPool.LocalSandbox> {
+
+    private final JudgeMetrics metrics;
+
+    @Value("${judge.docker.pool-size:4}")
+    private int poolSize;
+
+    @Value("${judge.workdir:/tmp/shodh-code}")
+    private String workRoot;
+
+    @PostConstruct
+    public void start() throws IOException {
+        for (int i = 0; i < poolSize; i++) {
+            register(createSandbox("local-" + i));
+        }
+        log.warn("Using {} local process sandboxes, submissions run without isolation", poolSize);
+    }
+
+    @Override
+    protected LocalSandbox create(LocalSandbox previous) throws IOException {
+        return createSandbox(previous.getId());
+    }
+
+    @Override
+    protected boolean reset(LocalSandbox sandbox) {
+        WorkDirectories.clean(sandbox.getWorkDir());
+        try {
+            return WorkDirectories.isEmpty(sandbox.getWorkDir());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private LocalSandbox createSandbox(String id) throws IOException {
+        long start = System.nanoTime();
+        Path workDir = Paths.get(workRoot, id);
+        Files.createDirectories(workDir);
+        WorkDirectories.clean(workDir);
+        metrics.recordSandboxStart("local", System.nanoTime() - start);
+        return new LocalSandbox(id, workDir);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class LocalSandbox implements Sandbox {
+
+        private final String id;
+        private final Path workDir;
+
+        @Override
+        public String visiblePath(Path hostPath) {
+            return hostPath.toAbsolutePath().toString();
+        }
+
+        @Override
+        public ExecResult exec(String command, long timeoutMillis) throws IOException, InterruptedException {
+            ProcessBuilder pb = new ProcessBuilder("/bin/sh", "-c", command);
+            pb.directory(new File(workDir.toString()));
+            pb.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+            return run(pb, timeoutMillis);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.shodhai.contest.sandbox;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Keeps the first and last bytes of an output of any length in fixed buffers. Bytes in between are counted and
+ * dropped, so a chatty program costs the judge no more memory than a quiet one.
+ */
+public class OutputCapture {
+
+    private static final int READ_BUFFER_BYTES = 8192;
+
+    // drain threads are pooled, so each keeps reusing its own read buffer
+    private static final ThreadLocal<byte[]> READ_BUFFER = ThreadLocal.withInitial(() -> new byte[READ_BUFFER_BYTES]);
+
+    private final byte[] head;
+    private final byte[] tail;
+    private int headLength;
+    private int tailEnd;
+    private int tailLength;
+    private long totalBytes;
+
+    public OutputCapture(int headBytes, int tailBytes) {
+        this.head = new byte[headBytes];
+        this.tail = new byte[tailBytes];
+    }
+
+    /**
+     * Reads the stream to its end into a capture that callers may already be looking at from another thread.
+     */
+    public static void drain(InputStream in, OutputCapture capture) throws IOException {
+        byte[] buffer = READ_BUFFER.get();
+        try (in) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                capture.write(buffer, 0, n);
+            }
+        }
+    }
+
+    /**
+     * Captures a file without loading more of it than the capture keeps.
+     */
+    public static OutputCapture read(Path file, int headBytes, int tailBytes) throws IOException {
+        OutputCapture capture = new OutputCapture(headBytes, tailBytes);
+        drain(Files.newInputStream(file), capture);
+        return capture;
+    }
+
+    public synchronized void write(byte[] bytes, int offset, int length) {
+        totalBytes += length;
+        int toHead = Math.min(length, head.length - headLength);
+        System.arraycopy(bytes, offset, head, headLength, toHead);
+        headLength += toHead;
+        offset += toHead;
+        length -= toHead;
+        if (tail.length == 0) {
+            return;
+        }
+        if (length > tail.length) {
+            offset += length - tail.length;
+            length = tail.length;
+        }
+        while (length > 0) {
+            int n = Math.min(length, tail.length - tailEnd);
+            System.arraycopy(bytes, offset, tail, tailEnd, n);
+            tailEnd = (tailEnd + n) % tail.length;
+            tailLength = Math.min(tail.length, tailLength + n);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized boolean isTruncated() {
+        return totalBytes > headLength + tailLength;
+    }
+
+    /**
+     * The head and the tail joined by a note of how much was dropped between them.
+     */
+    @Override
+    public synchronized String toString() {
+        int tailStart = (tailEnd - tailLength + tail.length) % Math.max(tail.length, 1);
+        byte[] ordered = new byte[headLength + tailLength];
+        System.arraycopy(head, 0, ordered, 0, headLength);
+        int firstPart = Math.min(tailLength, tail.length - tailStart);
+        System.arraycopy(tail, tailStart, ordered, headLength, firstPart);
+        System.arraycopy(tail, 0, ordered, headLength + firstPart, tailLength - firstPart);
+        long omitted = totalBytes - headLength - tailLength;
+        if (omitted == 0) {
+            return new String(ordered, StandardCharsets.UTF_8);
+        }
+        // the cuts may fall inside a multi-byte character, so each side is trimmed back to whole characters
+        int skip = leadingContinuationBytes(ordered, headLength);
+        return new String(ordered, 0, completeUtf8Length(ordered, headLength), StandardCharsets.UTF_8)
+            + "\n... [" + omitted + " bytes omitted] ...\n"
+            + new String(ordered, headLength + skip, tailLength - skip, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Length of the bytes up to the last whole UTF-8 character, dropping a character cut off at the end.
+     */
+    private static int completeUtf8Length(byte[] bytes, int length) {
+        int lead = length;
+        while (lead > 0 && length - lead < 3 && isContinuation(bytes[lead - 1])) {
+            lead--;
+        }
+        if (lead == 0) {
+            return length;
+        }
+        int b = bytes[lead - 1] & 0xFF;
+        int expected = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        return length - (lead - 1) >= expected ? length : lead - 1;
+    }
+
+    /**
+     * Bytes from {@code from} on that continue a character whose first byte was dropped, at most three.
+     */
+    private static int leadingContinuationBytes(byte[] bytes, int from) {
+        int skip = 0;
+        while (from + skip < bytes.length && skip < 3 && isContinuation(bytes[from + skip])) {
+            skip++;
+        }
+        return skip;
+    }
+
+    private static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+}
@@ -0,0 +1,76 @@
+package com.shodhai.contest.sandbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * CPU time, wall time and peak resident memory of one command, as reported by GNU time.
+ */
+@Data
+@AllArgsConstructor
+public class ResourceUsage {
+
+    private static final String MARKER = "__usage__";
+    // GNU time reports how the command ended just before the usage line
+    private static final Pattern EXIT_NOTE = Pattern.compile("Command (exited with non-zero status|terminated by signal) \\d+");
+
+    private long wallTimeMillis;
+    private long cpuTimeMillis;
+    private long peakMemoryKb;
+
+    /**
+     * Wraps a shell command so that the given GNU time binary reports its usage on the sandbox's stderr. The
+     * command's own stdout must already be redirected; its stderr comes before the usage line.
+     */
+    public static String measure(String timeCommand, String command) {
+        return timeCommand + " -f '" + MARKER + " %e %U %S %M' sh -c '" + command.replace("'", "'\\''") + "'";
+    }
+
+    /**
+     * Formats a usage line the way {@link #measure} has GNU time print it, for sandboxes that only simulate a run.
+     */
+    public static String format(long wallTimeMillis, long cpuTimeMillis, long peakMemoryKb) {
+        return String.format(Locale.ROOT, "%s %.2f %.2f 0.00 %d", MARKER, wallTimeMillis / 1000.0, cpuTimeMillis / 1000.0, peakMemoryKb);
+    }
+
+    /**
+     * Reads the usage line written by a command wrapped with {@link #measure}, or returns null if there is none.
+     * Only the last line is trusted, since GNU time writes it after the command has exited.
+     */
+    public static ResourceUsage parse(String errorOutput) {
+        if (errorOutput == null || errorOutput.isBlank()) {
+            return null;
+        }
+        String[] lines = errorOutput.strip().split("\n");
+        String[] fields = lines[lines.length - 1].trim().split("\\s+");
+        if (fields.length != 5 || !MARKER.equals(fields[0])) {
+            return null;
+        }
+        try {
+            long wall = Math.round(Double.parseDouble(fields[1]) * 1000);
+            long cpu = Math.round((Double.parseDouble(fields[2]) + Double.parseDouble(fields[3])) * 1000);
+            return new ResourceUsage(wall, cpu, Long.parseLong(fields[4]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The sandbox's stderr without the lines GNU time added, leaving what the command itself wrote.
+     */
+    public static String strip(String errorOutput) {
+        if (errorOutput == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder(errorOutput.length());
+        for (String line : errorOutput.split("\n")) {
+            String trimmed = line.trim();
+            if (!trimmed.startsWith(MARKER + " ") && !EXIT_NOTE.matcher(trimmed).matches()) {
+                text.append(line).append('\n');
+            }
+        }
+        return text.toString().strip();
+    }
+}
@@ -0,0 +1,24 @@
+package com.shodhai.contest.sandbox;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface Sandbox {
+
+    String getId();
+
+    /**
+     * Host directory that is visible to commands as their working directory.
+     */
+    Path getWorkDir();
+
+    /**
+     * Translates a host path inside the work directory or a mounted data directory to the path commands see.
+     */
+    String visiblePath(Path hostPath);
+
+    /**
+     * Runs a shell command inside the sandbox, killing it once the timeout elapses.
+     */
+    ExecResult exec(String command, long timeoutMillis) throws IOException, InterruptedException;
+}
@@ -0,0 +1,25 @@
+package com.shodhai.contest.sandbox;
+
+import java.util.concurrent.TimeUnit;
+
+public interface SandboxPool {
+
+    /**
+     * Leases an idle sandbox, waiting up to the given timeout for one to be released.
+     */
+    Sandbox acquire(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Leases an idle sandbox if one is available right now, otherwise returns null.
+     */
+    Sandbox tryAcquire();
+
+    /**
+     * Returns a sandbox to the pool, resetting it so the next lease starts from a clean state.
+     */
+    void release(Sandbox sandbox);
+
+    int getCapacity();
+
+    int getAvailable();
+}
@@ -0,0 +1,40 @@
+package com.shodhai.contest.sandbox;
+
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+@Slf4j
+public final class WorkDirectories {
+
+    private WorkDirectories() {
+    }
+
+    public static void clean(Path workDir) {
+        if (!Files.exists(workDir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(workDir)) {
+            paths.filter(path -> !path.equals(workDir))
+                .sorted(Comparator.reverseOrder())
+                .forEach(path -> {
+                    try {
+                        Files.delete(path);
+                    } catch (IOException e) {
+                        log.warn("Failed to delete: {}", path);
+                    }
+                });
+        } catch (IOException e) {
+            log.error("Cleanup error: {}", e.getMessage());
+        }
+    }
+
+    public static boolean isEmpty(Path workDir) throws IOException {
+        try (Stream<Path> entries = Files.list(workDir)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+}
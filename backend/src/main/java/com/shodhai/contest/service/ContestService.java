@@ -1,29 +1,62 @@
 package com.shodhai.contest.service;
+import com.shodhai.contest.cache.ViewCaches;
+import com.shodhai.contest.config.ConditionalOnApi;
 import com.shodhai.contest.dto.*;
 import com.shodhai.contest.entity.*;
 import com.shodhai.contest.repository.*;
+import com.shodhai.contest.leaderboard.LeaderboardPage;
+import com.shodhai.contest.leaderboard.LeaderboardPages;
+import com.shodhai.contest.leaderboard.LeaderboardService;
+import com.shodhai.contest.leaderboard.LeaderboardSnapshot;
+import com.shodhai.contest.testdata.TestDataKind;
+import com.shodhai.contest.testdata.TestDataStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 @Service
+@ConditionalOnApi
 @RequiredArgsConstructor
 public class ContestService {
+    private static final int MAX_AROUND_RADIUS = 100;
     private final ContestRepository contestRepository;
     private final ProblemRepository problemRepository;
+    private final TestCaseRepository testCaseRepository;
     private final UserRepository userRepository;
     private final SubmissionRepository submissionRepository;
-    private final JudgeService judgeService;
+    private final SubmissionTestResultRepository testResultRepository;
+    // absent on API-only nodes, where the workers find the new row in the submission table
+    private final ObjectProvider<JudgeScheduler> judgeScheduler;
+    private final TestDataStore testDataStore;
+    private final LeaderboardService leaderboardService;
+    private final LeaderboardPages leaderboardPages;
+    private final ViewCaches viewCaches;
+    private final SubmissionReferences submissionReferences;
+    private final TransactionTemplate transactionTemplate;
+    @Value("${judge.limits.time-ms:2000}")
+    private int defaultTimeLimitMs;
+    @Value("${judge.limits.memory-mb:256}")
+    private int defaultMemoryLimitMb;
     public ContestResponse getContest(String contestId) {
-        Contest contest = contestRepository.findById(contestId).orElseThrow(() -> new RuntimeException("Contest not found"));
+        return viewCaches.contests().get(contestId, this::loadContest);
+    }
+    public ProblemResponse getProblem(String problemId) {
+        return viewCaches.problems().get(problemId, this::loadProblem);
+    }
+    private ContestResponse loadContest(String contestId) {
+        ContestSummary contest = contestRepository.findSummaryById(contestId).orElseThrow(() -> new RuntimeException("Contest not found"));
         ContestResponse response = new ContestResponse();
         response.setId(contest.getId());
         response.setName(contest.getName());
         response.setDescription(contest.getDescription());
         response.setStartTime(contest.getStartTime());
         response.setEndTime(contest.getEndTime());
-        List<ContestResponse.ProblemSummary> problems = contest.getProblems().stream().map(p -> {
+        List<ContestResponse.ProblemSummary> problems = problemRepository.findTitlesByContestIdOrderById(contestId).stream().map(p -> {
             ContestResponse.ProblemSummary ps = new ContestResponse.ProblemSummary();
             ps.setId(p.getId());
             ps.setTitle(p.getTitle());
@@ -32,41 +65,54 @@ public class ContestService {
         response.setProblems(problems);
         return response;
     }
-    public ProblemResponse getProblem(String problemId) {
-        Problem problem = problemRepository.findById(problemId).orElseThrow(() -> new RuntimeException("Problem not found"));
+    private ProblemResponse loadProblem(String problemId) {
+        ProblemView problem = problemRepository.findViewById(problemId).orElseThrow(() -> new RuntimeException("Problem not found"));
         ProblemResponse response = new ProblemResponse();
         response.setId(problem.getId());
-        response.setContestId(problem.getContest().getId());
+        response.setContestId(problem.getContestId());
         response.setTitle(problem.getTitle());
         response.setStatement(problem.getStatement());
         response.setInputFormat(problem.getInputFormat());
         response.setOutputFormat(problem.getOutputFormat());
-        List<ProblemResponse.SampleTestCase> samples = problem.getTestCases().stream().filter(TestCase::isSample).map(tc -> {
+        response.setTimeLimitMs(problem.getTimeLimitMs() != null ? problem.getTimeLimitMs() : defaultTimeLimitMs);
+        response.setMemoryLimitMb(problem.getMemoryLimitMb() != null ? problem.getMemoryLimitMb() : defaultMemoryLimitMb);
+        List<ProblemResponse.SampleTestCase> samples = testCaseRepository.findSamplesByProblemId(problemId).stream().map(tc -> {
             ProblemResponse.SampleTestCase stc = new ProblemResponse.SampleTestCase();
-            stc.setInput(tc.getInput());
-            stc.setExpectedOutput(tc.getExpectedOutput());
+            stc.setInput(readTestData(TestDataKind.INPUT, tc.getInputHash()));
+            stc.setExpectedOutput(readTestData(TestDataKind.OUTPUT, tc.getExpectedOutputHash()));
             return stc;
         }).collect(Collectors.toList());
         response.setSampleTestCases(samples);
         return response;
     }
-    @Transactional
+    private String readTestData(TestDataKind kind, String hash) {
+        try {
+            return testDataStore.readString(kind, hash);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    /**
+     * References are resolved from cache before the transaction opens, so creating a first-time user never holds a
+     * second connection, and the transaction itself is the single submission insert.
+     */
     public SubmissionResponse submitCode(SubmissionRequest request) {
-        User user = userRepository.findByUsername(request.getUsername()).orElseGet(() -> {
-            User newUser = new User();
-            newUser.setUsername(request.getUsername());
-            return userRepository.save(newUser);
-        });
-        Problem problem = problemRepository.findById(request.getProblemId()).orElseThrow(() -> new RuntimeException("Problem not found"));
+        Long userId = submissionReferences.userId(request.getUsername());
+        submissionReferences.requireProblem(request.getProblemId());
+        return transactionTemplate.execute(status -> insertSubmission(request, userId));
+    }
+    private SubmissionResponse insertSubmission(SubmissionRequest request, Long userId) {
         Submission submission = new Submission();
-        submission.setUser(user);
-        submission.setProblem(problem);
+        submission.setUser(userRepository.getReferenceById(userId));
+        submission.setProblem(problemRepository.getReferenceById(request.getProblemId()));
         submission.setCode(request.getCode());
         submission.setLanguage(request.getLanguage());
+        submission.setSampleOnly(request.isSampleOnly());
         submission.setStatus(SubmissionStatus.PENDING);
         submission.setSubmittedAt(java.time.LocalDateTime.now());
         submission = submissionRepository.save(submission);
-        judgeService.judgeSubmission(submission);
+        JudgeTask task = new JudgeTask(submission.getId(), request.getUsername(), submission.isSampleOnly(), System.currentTimeMillis(), false);
+        judgeScheduler.ifAvailable(scheduler -> scheduler.submit(task));
         SubmissionResponse response = new SubmissionResponse();
         response.setSubmissionId(submission.getId());
         response.setStatus(submission.getStatus().toString());
@@ -74,7 +120,7 @@ public class ContestService {
         return response;
     }
     public SubmissionResponse getSubmissionStatus(Long submissionId) {
-        Submission submission = submissionRepository.findById(submissionId).orElseThrow(() -> new RuntimeException("Submission not found"));
+        SubmissionStatusView submission = submissionRepository.findStatusById(submissionId).orElseThrow(() -> new RuntimeException("Submission not found"));
         SubmissionResponse response = new SubmissionResponse();
         response.setSubmissionId(submission.getId());
         response.setStatus(submission.getStatus().toString());
@@ -85,40 +131,28 @@ public class ContestService {
         response.setMemoryUsed(submission.getMemoryUsed());
         return response;
     }
-    public List<LeaderboardEntry> getLeaderboard(String contestId) {
-        List<Submission> acceptedSubmissions = submissionRepository.findAcceptedSubmissionsByContest(contestId);
-        Map<String, LeaderboardStats> userStats = new HashMap<>();
-        for (Submission sub : acceptedSubmissions) {
-            String username = sub.getUser().getUsername();
-            userStats.putIfAbsent(username, new LeaderboardStats());
-            LeaderboardStats stats = userStats.get(username);
-            stats.addProblem(sub.getProblem().getId());
-            stats.updateLastSubmission(sub.getSubmittedAt());
+    public List<TestResultResponse> getSubmissionTests(Long submissionId) {
+        if (!submissionRepository.existsById(submissionId)) {
+            throw new RuntimeException("Submission not found");
         }
-        List<LeaderboardEntry> leaderboard = userStats.entrySet().stream().map(entry -> new LeaderboardEntry(
-            entry.getKey(), entry.getValue().getProblemsSolved() * 100, entry.getValue().getProblemsSolved(), 0, entry.getValue().getLastSubmissionTime()
-        )).sorted(Comparator.comparing(LeaderboardEntry::getScore).reversed().thenComparing(LeaderboardEntry::getLastSubmissionTime)).collect(Collectors.toList());
-        for (int i = 0; i < leaderboard.size(); i++) {
-            leaderboard.get(i).setRank(i + 1);
-        }
-        return leaderboard;
+        return testResultRepository.findBySubmissionIdOrderByTestIndex(submissionId).stream().map(result -> {
+            TestResultResponse response = new TestResultResponse();
+            response.setTest(result.getTestIndex() + 1);
+            response.setStatus(result.getStatus().toString());
+            response.setCpuTimeMillis(result.getCpuTimeMillis());
+            response.setWallTimeMillis(result.getWallTimeMillis());
+            response.setMemoryKb(result.getMemoryKb());
+            response.setDetail(result.getDetail());
+            return response;
+        }).collect(Collectors.toList());
     }
-    private static class LeaderboardStats {
-        private Set<String> solvedProblems = new HashSet<>();
-        private java.time.LocalDateTime lastSubmissionTime;
-        void addProblem(String problemId) {
-            solvedProblems.add(problemId);
-        }
-        void updateLastSubmission(java.time.LocalDateTime time) {
-            if (lastSubmissionTime == null || time.isAfter(lastSubmissionTime)) {
-                lastSubmissionTime = time;
-            }
-        }
-        int getProblemsSolved() {
-            return solvedProblems.size();
-        }
-        java.time.LocalDateTime getLastSubmissionTime() {
-            return lastSubmissionTime;
+    public LeaderboardSnapshot getLeaderboardSnapshot(String contestId, Integer limit) {
+        return leaderboardService.getSnapshot(contestId, limit);
+    }
+    public LeaderboardPage getLeaderboardPage(String contestId, int offset, Integer limit, String around, int radius) {
+        if (around != null) {
+            return leaderboardPages.around(contestId, around, Math.max(0, Math.min(radius, MAX_AROUND_RADIUS)));
         }
+        return leaderboardPages.page(contestId, offset, limit);
     }
 }
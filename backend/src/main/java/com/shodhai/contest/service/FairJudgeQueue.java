@@ -0,0 +1,100 @@
+package com.shodhai.contest.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking queue that serves sample-only runs ahead of full runs and rotates between users inside each lane,
+ * so a single user with many queued submissions only ever occupies one slot of the rotation. Batch rejudges wait in
+ * a lane of their own that is only served while no live submission is queued.
+ */
+public class FairJudgeQueue {
+
+    // Full runs still get one turn after this many consecutive sample runs, so they cannot starve
+    private static final int MAX_SAMPLE_BURST = 4;
+
+    private final Lane sampleLane = new Lane();
+    private final Lane fullLane = new Lane();
+    private final Lane rejudgeLane = new Lane();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private int sampleBurst;
+    private int size;
+
+    public void put(JudgeTask task) {
+        lock.lock();
+        try {
+            (task.isRejudge() ? rejudgeLane : task.isSampleOnly() ? sampleLane : fullLane).add(task);
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public JudgeTask take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            JudgeTask task;
+            if (!sampleLane.isEmpty() && (fullLane.isEmpty() || sampleBurst < MAX_SAMPLE_BURST)) {
+                task = sampleLane.poll();
+                sampleBurst++;
+            } else if (!fullLane.isEmpty()) {
+                task = fullLane.poll();
+                sampleBurst = 0;
+            } else {
+                task = rejudgeLane.poll();
+            }
+            size--;
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Lane {
+
+        private final Map<String, Deque<JudgeTask>> byUser = new HashMap<>();
+        private final Deque<String> rotation = new ArrayDeque<>();
+
+        void add(JudgeTask task) {
+            Deque<JudgeTask> tasks = byUser.computeIfAbsent(task.getUserKey(), key -> new ArrayDeque<>());
+            if (tasks.isEmpty()) {
+                rotation.addLast(task.getUserKey());
+            }
+            tasks.addLast(task);
+        }
+
+        JudgeTask poll() {
+            String userKey = rotation.pollFirst();
+            Deque<JudgeTask> tasks = byUser.get(userKey);
+            JudgeTask task = tasks.pollFirst();
+            if (tasks.isEmpty()) {
+                byUser.remove(userKey);
+            } else {
+                rotation.addLast(userKey);
+            }
+            return task;
+        }
+
+        boolean isEmpty() {
+            return rotation.isEmpty();
+        }
+    }
+}
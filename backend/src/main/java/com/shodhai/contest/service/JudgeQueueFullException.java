@@ -0,0 +1,16 @@
+package com.shodhai.contest.service;
+
+import lombok.Getter;
+
+@Getter
+public class JudgeQueueFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public JudgeQueueFullException(long retryAfterSeconds) {
+        super("Judge queue is full, retry in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,256 @@
+package com.shodhai.contest.service;
+
+import com.shodhai.contest.cluster.JudgeNodes;
+import com.shodhai.contest.config.ConditionalOnJudging;
+import com.shodhai.contest.config.VirtualThreads;
+import com.shodhai.contest.metrics.JudgeMetrics;
+import com.shodhai.contest.metrics.JudgeTrace;
+import com.shodhai.contest.metrics.JudgeTraces;
+import com.shodhai.contest.repository.QueuedSubmission;
+import com.shodhai.contest.sandbox.SandboxPool;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@ConditionalOnJudging
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeScheduler {
+
+    private final JudgeService judgeService;
+    private final SandboxPool sandboxPool;
+    private final SubmissionQueue submissionQueue;
+    private final JudgeMetrics metrics;
+    private final JudgeTraces traces;
+    private final JudgeNodes judgeNodes;
+
+    @Value("${judge.queue.capacity:500}")
+    private int queueCapacity;
+
+    @Value("${judge.workers:0}")
+    private int configuredWorkers;
+
+    @Value("${judge.docker.cpus:0.5}")
+    private double cpusPerSandbox;
+
+    @Value("${app.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    private final FairJudgeQueue queue = new FairJudgeQueue();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private Semaphore capacity;
+    private Semaphore judgeSlots;
+    private ExecutorService workers;
+    private int workerCount;
+    private volatile double averageJudgeMillis = 2000;
+
+    @PostConstruct
+    public void start() {
+        capacity = new Semaphore(queueCapacity);
+        workerCount = configuredWorkers > 0 ? configuredWorkers : defaultWorkerCount();
+        ExecutorService virtualWorkers = virtualThreadsEnabled ? VirtualThreads.newPerTaskExecutor() : null;
+        if (virtualWorkers != null) {
+            // one virtual thread per judging; the slots, not a thread count, bound how many run at once
+            judgeSlots = new Semaphore(workerCount);
+            workers = virtualWorkers;
+            workers.execute(this::dispatchToVirtualThreads);
+            log.info("Judge scheduler started on virtual threads with {} judge slots and a queue of {}", workerCount, queueCapacity);
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "judge-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::runWorker);
+        }
+        log.info("Judge scheduler started with {} workers and a queue of {}", workerCount, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Fast path for a freshly stored submission. Inside a transaction the slot is reserved immediately but the task
+     * only becomes visible to workers after commit; the submission table stays the source of truth either way.
+     */
+    public void submit(JudgeTask task) {
+        if (!capacity.tryAcquire()) {
+            throw new JudgeQueueFullException(estimateRetryAfterSeconds());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(task);
+                    } else {
+                        capacity.release();
+                    }
+                }
+            });
+        } else {
+            enqueue(task);
+        }
+    }
+
+    /**
+     * Pulls claimable work from the submission table: submissions queued on other nodes, submissions left PENDING
+     * by a restart, and RUNNING submissions whose lease expired. Only enough is pulled to keep the workers busy,
+     * and with other judging nodes alive only this node's share of the backlog, so less-loaded nodes go first.
+     */
+    @Scheduled(fixedDelayString = "${judge.queue.poll-interval:2000}")
+    public void pollDurableQueue() {
+        int busy = busyWorkers.get();
+        int waiting = queue.size();
+        int wanted = workerCount - busy - waiting;
+        if (wanted <= 0) {
+            return;
+        }
+        if (judgeNodes.hasPeers()) {
+            wanted = judgeNodes.claimAllowance(workerCount, busy, waiting, submissionQueue.countClaimable());
+            if (wanted == 0) {
+                return;
+            }
+        }
+        for (QueuedSubmission claimable : submissionQueue.findClaimable(wanted + queued.size())) {
+            if (wanted == 0) {
+                return;
+            }
+            if (queued.contains(claimable.getId()) || inFlight.contains(claimable.getId()) || !capacity.tryAcquire()) {
+                continue;
+            }
+            enqueue(new JudgeTask(claimable.getId(), claimable.getUsername(), claimable.isSampleOnly(), System.currentTimeMillis(),
+                claimable.isRejudge()));
+            wanted--;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.heartbeat-interval:2000}")
+    public void heartbeat() {
+        judgeNodes.heartbeat(workerCount, busyWorkers.get(), queue.size());
+    }
+
+    @Scheduled(fixedDelayString = "${judge.queue.renew-interval:20000}")
+    public void renewLeases() {
+        submissionQueue.renew(Set.copyOf(inFlight));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getBusyWorkers() {
+        return busyWorkers.get();
+    }
+
+    private void enqueue(JudgeTask task) {
+        if (queued.add(task.getSubmissionId())) {
+            queue.put(task);
+        } else {
+            capacity.release();
+        }
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    private void runWorker() {
+        while (!Thread.currentThread().isInterrupted()) {
+            JudgeTask task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            judge(task);
+        }
+    }
+
+    private void dispatchToVirtualThreads() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // take a slot first, so the fair queue picks the next task only when it can actually start
+                judgeSlots.acquire();
+                JudgeTask task;
+                try {
+                    task = queue.take();
+                } catch (InterruptedException e) {
+                    judgeSlots.release();
+                    throw e;
+                }
+                workers.execute(() -> {
+                    try {
+                        judge(task);
+                    } finally {
+                        judgeSlots.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    private void judge(JudgeTask task) {
+        capacity.release();
+        busyWorkers.incrementAndGet();
+        long start = System.currentTimeMillis();
+        inFlight.add(task.getSubmissionId());
+        queued.remove(task.getSubmissionId());
+        JudgeTrace trace = new JudgeTrace(task.getSubmissionId());
+        long waited = Math.max(0, start - task.getEnqueuedAt());
+        trace.record("queue", waited);
+        metrics.recordQueueWait(waited);
+        try {
+            if (submissionQueue.claim(task.getSubmissionId())) {
+                trace.lap("claim");
+                judgeService.judgeSubmission(task.getSubmissionId(), trace);
+                traces.add(trace);
+            } else {
+                log.debug("Submission {} was claimed elsewhere", task.getSubmissionId());
+            }
+        } catch (Exception e) {
+            log.error("Judge worker failed on submission {}: {}", task.getSubmissionId(), e.getMessage(), e);
+        } finally {
+            inFlight.remove(task.getSubmissionId());
+            busyWorkers.decrementAndGet();
+            averageJudgeMillis = 0.9 * averageJudgeMillis + 0.1 * (System.currentTimeMillis() - start);
+        }
+    }
+
+    private int defaultWorkerCount() {
+        int byCores = (int) Math.floor(Runtime.getRuntime().availableProcessors() / Math.max(cpusPerSandbox, 0.1));
+        return Math.max(1, Math.min(byCores, sandboxPool.getCapacity()));
+    }
+
+    private long estimateRetryAfterSeconds() {
+        double drainMillis = queue.size() * averageJudgeMillis / workerCount;
+        return Math.max(1, (long) Math.ceil(drainMillis / 1000));
+    }
+}
@@ -1,159 +1,755 @@
 package com.shodhai.contest.service;
 
+import com.shodhai.contest.cache.ArtifactCache;
+import com.shodhai.contest.cache.Fingerprints;
+import com.shodhai.contest.cache.VerdictCache;
+import com.shodhai.contest.checker.CheckResult;
+import com.shodhai.contest.checker.CheckerRegistry;
+import com.shodhai.contest.checker.OutputChecker;
+import com.shodhai.contest.config.ConditionalOnJudging;
+import com.shodhai.contest.config.VirtualThreads;
 import com.shodhai.contest.entity.*;
+import com.shodhai.contest.event.SubmissionProgressEvent;
+import com.shodhai.contest.metrics.JudgeMetrics;
+import com.shodhai.contest.metrics.JudgeTrace;
 import com.shodhai.contest.repository.SubmissionRepository;
+import com.shodhai.contest.sandbox.ExecResult;
+import com.shodhai.contest.sandbox.OutputCapture;
+import com.shodhai.contest.sandbox.ResourceUsage;
+import com.shodhai.contest.sandbox.Sandbox;
+import com.shodhai.contest.sandbox.SandboxPool;
+import com.shodhai.contest.testdata.TestDataKind;
+import com.shodhai.contest.testdata.TestDataStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import java.io.*;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@ConditionalOnJudging
 @RequiredArgsConstructor
 @Slf4j
 public class JudgeService {
 
     private final SubmissionRepository submissionRepository;
+    private final SandboxPool sandboxPool;
+    private final CheckerRegistry checkerRegistry;
+    private final TestDataStore testDataStore;
+    private final SubmissionResultWriter resultWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JudgeMetrics metrics;
+    private final VerdictCache verdictCache;
+    private final ArtifactCache artifactCache;
+    private final TestFailureStats failureStats;
+    private final ObjectProvider<JudgeScheduler> judgeScheduler;
 
-    @Value("${judge.docker.image:shodh-judge:latest}")
-    private String dockerImage;
+    @Value("${judge.limits.time-ms:2000}")
+    private int defaultTimeLimitMs;
 
-    @Value("${judge.docker.memory:256m}")
-    private String memoryLimit;
+    @Value("${judge.limits.memory-mb:256}")
+    private int defaultMemoryLimitMb;
 
-    @Value("${judge.docker.cpus:0.5}")
-    private String cpuLimit;
+    @Value("${judge.limits.output-mb:64}")
+    private int outputLimitMb;
 
-    @Value("${judge.docker.timeout:10}")
-    private int timeoutSeconds;
+    @Value("${judge.limits.java.cpu-allowance-ms:1000}")
+    private int javaCpuAllowanceMs;
 
-    @Async
-    @Transactional
-    public void judgeSubmission(Submission submission) {
+    @Value("${judge.limits.java.memory-allowance-mb:128}")
+    private int javaMemoryAllowanceMb;
+
+    @Value("${judge.time-command:/usr/bin/time}")
+    private String timeCommand;
+
+    @Value("${judge.docker.compile-timeout:30}")
+    private int compileTimeoutSeconds;
+
+    @Value("${judge.docker.acquire-timeout:60}")
+    private int acquireTimeoutSeconds;
+
+    @Value("${judge.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${judge.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${judge.fast-fail.enabled:false}")
+    private boolean fastFailEnabled;
+
+    @Value("${judge.parallel-tests.enabled:false}")
+    private boolean parallelTestsEnabled;
+
+    @Value("${judge.parallel-tests.max:4}")
+    private int maxTestParallelism;
+
+    // head and tail of a compiler log, small enough together to fit the submission's 5000 character output column
+    private static final int COMPILE_LOG_HEAD_BYTES = 2400;
+    private static final int COMPILE_LOG_TAIL_BYTES = 2400;
+    // head and tail of a failed run's stderr, small enough together to fit the 1000 character test result detail
+    private static final int RUN_ERROR_HEAD_BYTES = 450;
+    private static final int RUN_ERROR_TAIL_BYTES = 450;
+    // wall clock allowance over the CPU limit for programs that sleep or wait on I/O
+    private static final int WALL_TIME_FACTOR = 2;
+    private static final int WALL_TIME_SLACK_MILLIS = 1000;
+    private static final int KILLED_EXIT_CODE = 137;
+    // SIGXFSZ as reported by the shell once a write goes past ulimit -f
+    private static final int FILE_SIZE_EXCEEDED_EXIT_CODE = 153;
+    private static final int ULIMIT_BLOCK_BYTES = 512;
+
+    @Value("${app.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    private final AtomicInteger laneThreadIndex = new AtomicInteger();
+    // judgings holding their own sandbox; extra test lanes must leave one idle sandbox for every other worker
+    private final AtomicInteger sandboxHolders = new AtomicInteger();
+    private final Object extraSandboxLock = new Object();
+    private ExecutorService laneExecutor;
+
+    @PostConstruct
+    public void start() {
+        laneExecutor = virtualThreadsEnabled ? VirtualThreads.newPerTaskExecutor() : null;
+        if (laneExecutor == null) {
+            laneExecutor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "judge-lane-" + laneThreadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        laneExecutor.shutdownNow();
+    }
+
+    /**
+     * Judges a claimed submission. The submission, its problem and test cases are loaded up front, so no database
+     * connection is held while code compiles and runs; the verdict is written once at the end. Stage timings are
+     * added to the given trace. Code already judged against the same test set takes its verdict from the cache,
+     * except on a rejudge, which always runs again but still reuses compiled artifacts.
+     */
+    public void judgeSubmission(Long submissionId, JudgeTrace trace) {
+        long start = System.currentTimeMillis();
+        String language = null;
         try {
-            Submission freshSubmission = submissionRepository.findById(submission.getId()).orElse(submission);
-            freshSubmission.setStatus(SubmissionStatus.RUNNING);
-            submissionRepository.save(freshSubmission);
-            String workDir = createWorkDirectory(freshSubmission);
-
-            for (TestCase testCase : freshSubmission.getProblem().getTestCases()) {
-                String result = executeCode(freshSubmission, testCase, workDir);
-                if (!result.equals("ACCEPTED")) {
-                    freshSubmission.setStatus(SubmissionStatus.valueOf(result));
-                    freshSubmission.setVerdict(result);
-                    submissionRepository.save(freshSubmission);
-                    cleanupWorkDirectory(workDir);
-                    return;
-                }
+            Submission freshSubmission = submissionRepository.findForJudging(submissionId).orElseThrow(() -> new RuntimeException("Submission not found"));
+            language = freshSubmission.getLanguage();
+            trace.lap("load");
+            if (freshSubmission.getAttempts() > maxAttempts) {
+                finish(freshSubmission, SubmissionStatus.RUNTIME_ERROR, "System error: judging abandoned after " + maxAttempts + " attempts", List.of(), List.of(), trace);
+                return;
             }
 
-            freshSubmission.setStatus(SubmissionStatus.ACCEPTED);
-            freshSubmission.setVerdict("All test cases passed");
-            submissionRepository.save(freshSubmission);
-            cleanupWorkDirectory(workDir);
+            List<TestCase> testCases = freshSubmission.getProblem().getTestCases().stream()
+                .filter(testCase -> !freshSubmission.isSampleOnly() || testCase.isSample())
+                .collect(Collectors.toList());
+            String sourceHash = Fingerprints.source(freshSubmission.getCode());
+            VerdictCache.Key cacheKey = verdictKey(freshSubmission, testCases, sourceHash);
+            if (finishFromCache(freshSubmission, cacheKey, testCases, trace)) {
+                return;
+            }
+
+            long acquireStart = System.nanoTime();
+            Sandbox sandbox = sandboxPool.acquire(acquireTimeoutSeconds, TimeUnit.SECONDS);
+            metrics.recordSandboxAcquire(System.nanoTime() - acquireStart);
+            sandboxHolders.incrementAndGet();
+            trace.lap("sandbox");
+            SandboxRun run;
+            try {
+                run = judgeInSandbox(freshSubmission, testCases, sourceHash, sandbox, trace);
+            } finally {
+                sandboxHolders.decrementAndGet();
+                sandboxPool.release(sandbox);
+                trace.lap("release");
+            }
+            failureStats.record(testCases, run.results());
+            if (cacheEnabled && run.cacheable()) {
+                verdictCache.put(cacheKey, new VerdictCache.Entry(freshSubmission.getStatus(), freshSubmission.getVerdict(),
+                    freshSubmission.getOutput(), freshSubmission.getExecutionTime(), freshSubmission.getMemoryUsed(), run.results()));
+            }
         } catch (Exception e) {
+            if (isInterruption(e)) {
+                // shutdown: write nothing, so the lease expires and another node (or this one, restarted) judges it
+                Thread.currentThread().interrupt();
+                log.info("Judging of submission {} interrupted, leaving it to lease recovery", submissionId);
+                return;
+            }
             log.error("Error judging submission: {}", e.getMessage(), e);
             try {
-                Submission freshSubmission = submissionRepository.findById(submission.getId()).orElse(submission);
-                freshSubmission.setStatus(SubmissionStatus.RUNTIME_ERROR);
-                freshSubmission.setVerdict("System error: " + e.getMessage());
-                submissionRepository.save(freshSubmission);
+                Submission freshSubmission = submissionRepository.findForJudging(submissionId).orElseThrow();
+                finish(freshSubmission, SubmissionStatus.RUNTIME_ERROR, "System error: " + e.getMessage(), List.of(), List.of(), trace);
             } catch (Exception saveError) {
                 log.error("Failed to save error status: {}", saveError.getMessage());
             }
+        } finally {
+            metrics.recordJudging(language, System.currentTimeMillis() - start);
         }
     }
 
-    private String createWorkDirectory(Submission submission) throws IOException {
-        String workDir = "/tmp/shodh-code/" + UUID.randomUUID().toString();
-        Files.createDirectories(Paths.get(workDir));
-        String fileName = getFileName(submission.getLanguage());
-        Path codePath = Paths.get(workDir, fileName);
-        Files.write(codePath, submission.getCode().getBytes());
-        return workDir;
+    private static boolean isInterruption(Throwable error) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private VerdictCache.Key verdictKey(Submission submission, List<TestCase> testCases, String sourceHash) {
+        Problem problem = submission.getProblem();
+        String testSetHash = Fingerprints.testSet(problem, testCases, timeLimitMs(problem), memoryLimitMb(problem));
+        return new VerdictCache.Key(problem.getId(), submission.getLanguage().toLowerCase(), sourceHash, testSetHash, submission.isSampleOnly());
+    }
+
+    private boolean finishFromCache(Submission submission, VerdictCache.Key cacheKey, List<TestCase> testCases, JudgeTrace trace) {
+        if (!cacheEnabled || submission.isRejudge()) {
+            return false;
+        }
+        VerdictCache.Entry cached = verdictCache.get(cacheKey);
+        metrics.recordCacheLookup("verdicts", cached != null);
+        if (cached == null) {
+            return false;
+        }
+        trace.lap("cache");
+        submission.setOutput(cached.getOutput());
+        submission.setExecutionTime(cached.getExecutionTime());
+        submission.setMemoryUsed(cached.getMemoryUsed());
+        finish(submission, cached.getStatus(), cached.getVerdict(), testCases, cached.getResults(), trace);
+        return true;
+    }
+
+    /**
+     * Compiles and runs the submission, then stores its verdict. Returns the results of the tests that ran, and
+     * whether the verdict may be cached.
+     */
+    private SandboxRun judgeInSandbox(Submission submission, List<TestCase> testCases, String sourceHash, Sandbox sandbox,
+                                               JudgeTrace trace) throws IOException, InterruptedException {
+        createWorkDirectory(submission, sandbox);
+        trace.lap("prepare");
+
+        CompileFailure compileFailure = compileCode(submission, sourceHash, sandbox);
+        trace.lap("compile");
+        if (compileFailure != null) {
+            submission.setOutput(compileFailure.message());
+            finish(submission, SubmissionStatus.COMPILATION_ERROR, "COMPILATION_ERROR", List.of(), List.of(), trace);
+            return new SandboxRun(List.of(), !compileFailure.judgeDependent());
+        }
+
+        publishProgress(submission, 0, testCases.size());
+        List<Integer> order = runOrder(testCases);
+        int parallelism = testParallelism(submission.getProblem(), testCases.size());
+        List<TestRunResult> ran = parallelism > 1
+            ? runTestsInParallel(submission, testCases, order, sandbox, parallelism)
+            : runTestsSequentially(submission, testCases, order, sandbox);
+        trace.lap("tests");
+        metrics.recordTestsRun(fastFailEnabled ? "fast-fail" : "canonical", ran.size());
+        List<TestRunResult> results = canonicalResults(ran);
+        recordUsage(submission, results);
+        TestRunResult failure = results.stream().filter(result -> !result.isAccepted()).findFirst().orElse(null);
+        if (failure != null) {
+            if (failure.getDetail() != null) {
+                submission.setOutput(failure.getDetail());
+            }
+            finish(submission, failure.getStatus(), failure.getStatus() + " on test " + (failure.getIndex() + 1), testCases, results, trace);
+            return new SandboxRun(results, true);
+        }
+
+        finish(submission, SubmissionStatus.ACCEPTED, submission.isSampleOnly() ? "All sample test cases passed" : "All test cases passed",
+            testCases, results, trace);
+        return new SandboxRun(results, true);
+    }
+
+    /**
+     * Indexes of the tests in the order they run. In fast-fail mode the tests most likely to fail per millisecond go
+     * first. Once a test fails, only untried tests with a lower index still run, so the failure reported is always
+     * the lowest-numbered failing test, as in a run in problem order.
+     */
+    private List<Integer> runOrder(List<TestCase> testCases) {
+        if (fastFailEnabled) {
+            return failureStats.fastFailOrder(testCases);
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < testCases.size(); i++) {
+            order.add(i);
+        }
+        return order;
     }
 
-    private String executeCode(Submission submission, TestCase testCase, String workDir) {
+    /**
+     * Runs tests in the given order, skipping every test numbered above the lowest failure so far, and returns the
+     * results of the tests that ran.
+     */
+    private List<TestRunResult> runTestsSequentially(Submission submission, List<TestCase> testCases, List<Integer> order, Sandbox sandbox)
+            throws InterruptedException {
+        List<TestRunResult> results = new ArrayList<>();
+        int lowestFailure = Integer.MAX_VALUE;
+        int passed = 0;
+        for (int index : order) {
+            if (index > lowestFailure) {
+                continue;
+            }
+            TestRunResult result = executeCode(submission, testCases.get(index), index, sandbox);
+            results.add(result);
+            if (!result.isAccepted()) {
+                lowestFailure = index;
+            } else {
+                publishProgress(submission, ++passed, testCases.size());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The results a run in problem order would have: every test up to and including the lowest-numbered failure, in
+     * test order. Tests above it that ran before the failure was found are dropped, so the verdict, the stored
+     * results and the cache entry do not depend on the run order.
+     */
+    private static List<TestRunResult> canonicalResults(List<TestRunResult> ran) {
+        int lowestFailure = ran.stream().filter(result -> !result.isAccepted()).mapToInt(TestRunResult::getIndex)
+            .min().orElse(Integer.MAX_VALUE);
+        return ran.stream()
+            .filter(result -> result.getIndex() <= lowestFailure)
+            .sorted(Comparator.comparingInt(TestRunResult::getIndex))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Spreads the tests over extra sandboxes borrowed from the pool. Lanes take tests in run order and skip those
+     * numbered above the lowest failure found so far, interrupting any such test already running. Every test below
+     * the lowest failure still completes, so the reported test is the same one a sequential run would report.
+     */
+    private List<TestRunResult> runTestsInParallel(Submission submission, List<TestCase> testCases, List<Integer> order, Sandbox primary,
+                                                   int parallelism) throws IOException, InterruptedException {
+        List<Sandbox> extras = new ArrayList<>();
         try {
-            Path inputPath = Paths.get(workDir, "input.txt");
-            Path outputPath = Paths.get(workDir, "output.txt");
-            Files.write(inputPath, testCase.getInput().getBytes());
+            for (int i = 1; i < parallelism; i++) {
+                Sandbox extra = tryAcquireExtra();
+                if (extra == null) {
+                    break;
+                }
+                extras.add(extra);
+                copyWorkDirectory(primary, extra);
+            }
+            if (extras.isEmpty()) {
+                return runTestsSequentially(submission, testCases, order, primary);
+            }
+
+            ParallelRun run = new ParallelRun(submission, testCases, order);
+            List<TestLane> lanes = new ArrayList<>();
+            lanes.add(new TestLane(run, primary));
+            extras.forEach(extra -> lanes.add(new TestLane(run, extra)));
+            run.lanes = lanes;
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (TestLane lane : lanes) {
+                futures.add(laneExecutor.submit(lane));
+            }
+            try {
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException e) {
+                throw new IOException("Test lane failed", e.getCause());
+            } finally {
+                futures.forEach(future -> future.cancel(true));
+            }
+
+            List<TestRunResult> results = new ArrayList<>();
+            int needed = 0;
+            for (TestRunResult result : run.results) {
+                if (result != null) {
+                    results.add(result);
+                    needed += result.getIndex() <= run.lowestFailure.get() ? 1 : 0;
+                }
+            }
+            if (needed < Math.min(run.lowestFailure.get(), testCases.size() - 1) + 1) {
+                // a lane was stopped from outside, so a test below the failure has no result
+                throw new InterruptedException("Test lanes stopped before every needed test ran");
+            }
+            return results;
+        } finally {
+            extras.forEach(sandboxPool::release);
+        }
+    }
+
+    /**
+     * Borrows a sandbox for an extra test lane, but only while more sandboxes are idle than there are workers
+     * without one, so parallel tests never leave another worker waiting for its first sandbox.
+     */
+    private Sandbox tryAcquireExtra() {
+        synchronized (extraSandboxLock) {
+            int workersWithoutSandbox = Math.max(0, judgeScheduler.getObject().getWorkerCount() - sandboxHolders.get());
+            if (sandboxPool.getAvailable() <= workersWithoutSandbox) {
+                return null;
+            }
+            return sandboxPool.tryAcquire();
+        }
+    }
+
+    private int testParallelism(Problem problem, int testCount) {
+        if (!parallelTestsEnabled || problem.getTestParallelism() == null) {
+            return 1;
+        }
+        return Math.max(1, Math.min(Math.min(problem.getTestParallelism(), maxTestParallelism), testCount));
+    }
+
+    private void copyWorkDirectory(Sandbox from, Sandbox to) throws IOException {
+        try (Stream<Path> files = Files.list(from.getWorkDir())) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    Files.copy(file, to.getWorkDir().resolve(file.getFileName()), StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
 
-            String command = buildDockerCommand(submission, workDir);
-            log.info("Executing: {}", command);
+    private static final class ParallelRun {
 
-            ProcessBuilder pb = new ProcessBuilder("/bin/sh", "-c", command);
-            pb.directory(new File(workDir));
+        private final Submission submission;
+        private final List<TestCase> testCases;
+        private final List<Integer> order;
+        // indexed by run position, not by test index
+        private final TestRunResult[] results;
+        private final AtomicInteger nextPosition = new AtomicInteger();
+        // test index, not run position
+        private final AtomicInteger lowestFailure = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicInteger passed = new AtomicInteger();
+        private List<TestLane> lanes;
 
-            Process process = pb.start();
-            boolean finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
+        ParallelRun(Submission submission, List<TestCase> testCases, List<Integer> order) {
+            this.submission = submission;
+            this.testCases = testCases;
+            this.order = order;
+            this.results = new TestRunResult[testCases.size()];
+        }
+
+        void recordFailure(int index) {
+            int lowest = lowestFailure.accumulateAndGet(index, Math::min);
+            lanes.forEach(lane -> lane.cancelAbove(lowest));
+        }
+    }
+
+    private final class TestLane implements Runnable {
+
+        private final ParallelRun run;
+        private final Sandbox sandbox;
+        private Thread thread;
+        // index of the test running in this lane, or -1
+        private int current = -1;
+        private boolean cancelled;
 
-            if (!finished) {
-                process.destroyForcibly();
-                return "TIME_LIMIT_EXCEEDED";
+        TestLane(ParallelRun run, Sandbox sandbox) {
+            this.run = run;
+            this.sandbox = sandbox;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                thread = Thread.currentThread();
             }
+            try {
+                int position;
+                while ((position = run.nextPosition.getAndIncrement()) < run.order.size()) {
+                    int index = run.order.get(position);
+                    synchronized (this) {
+                        if (index > run.lowestFailure.get()) {
+                            continue;
+                        }
+                        current = index;
+                    }
+                    TestRunResult result = null;
+                    boolean wasCancelled;
+                    try {
+                        result = executeCode(run.submission, run.testCases.get(index), index, sandbox);
+                    } catch (InterruptedException e) {
+                        // a cancelled test is simply dropped; any other interrupt stops the lane
+                    } finally {
+                        synchronized (this) {
+                            current = -1;
+                            wasCancelled = cancelled;
+                            if (cancelled) {
+                                cancelled = false;
+                                // an interrupt aimed at the cancelled test must not hit the next one
+                                Thread.interrupted();
+                            }
+                        }
+                    }
+                    if (result == null) {
+                        if (wasCancelled) {
+                            continue;
+                        }
+                        return;
+                    }
+                    run.results[position] = result;
+                    if (!result.isAccepted()) {
+                        run.recordFailure(index);
+                    } else {
+                        publishProgress(run.submission, run.passed.incrementAndGet(), run.testCases.size());
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    thread = null;
+                }
+                // an interrupt aimed at a cancelled test must not leak into the next task on this pooled thread
+                Thread.interrupted();
+            }
+        }
 
-            int exitCode = process.exitValue();
+        synchronized void cancelAbove(int index) {
+            if (thread != null && current > index) {
+                cancelled = true;
+                thread.interrupt();
+            }
+        }
+    }
 
-            String errorOutput = "";
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
-                errorOutput = reader.lines().reduce("", (a, b) -> a + "\n" + b);
+    private void recordUsage(Submission submission, List<TestRunResult> results) {
+        Integer maxCpuMillis = null;
+        Integer maxMemoryKb = null;
+        for (TestRunResult result : results) {
+            ResourceUsage usage = result.getUsage();
+            if (usage != null) {
+                maxCpuMillis = Math.max(maxCpuMillis == null ? 0 : maxCpuMillis, (int) usage.getCpuTimeMillis());
+                if (usage.getPeakMemoryKb() >= 0) {
+                    maxMemoryKb = Math.max(maxMemoryKb == null ? 0 : maxMemoryKb, (int) usage.getPeakMemoryKb());
+                }
             }
+        }
+        submission.setExecutionTime(maxCpuMillis);
+        submission.setMemoryUsed(maxMemoryKb);
+    }
+
+    private void publishProgress(Submission submission, int testsCompleted, int testsTotal) {
+        eventPublisher.publishEvent(new SubmissionProgressEvent(submission.getId(), SubmissionStatus.RUNNING, testsCompleted, testsTotal));
+    }
+
+    private void finish(Submission submission, SubmissionStatus status, String verdict, List<TestCase> testCases, List<TestRunResult> results,
+                        JudgeTrace trace) {
+        submission.setStatus(status);
+        submission.setVerdict(verdict);
+        resultWriter.finish(submission, testCases, results);
+        trace.lap("write");
+        trace.finish(status);
+        metrics.recordVerdict(submission.getLanguage(), status);
+    }
+
+    private void createWorkDirectory(Submission submission, Sandbox sandbox) throws IOException {
+        String fileName = getFileName(submission.getLanguage());
+        Path codePath = sandbox.getWorkDir().resolve(fileName);
+        Files.write(codePath, submission.getCode().getBytes());
+    }
 
-            if (exitCode != 0) {
-                log.error("Process failed with exit code {}: {}", exitCode, errorOutput);
-                return "RUNTIME_ERROR";
+    private CompileFailure compileCode(Submission submission, String sourceHash, Sandbox sandbox) throws IOException, InterruptedException {
+        String compileCommand = buildCompileCommand(submission.getLanguage());
+        if (compileCommand == null) {
+            return null;
+        }
+        if (cacheEnabled) {
+            boolean restored = artifactCache.restore(submission.getLanguage(), sourceHash, sandbox.getWorkDir());
+            metrics.recordCacheLookup("artifacts", restored);
+            if (restored) {
+                log.debug("Reusing compiled artifacts for submission {}", submission.getId());
+                return null;
             }
+        }
+
+        log.info("Compiling submission {} in {}", submission.getId(), sandbox.getId());
+        long start = System.nanoTime();
+        ExecResult result = sandbox.exec(compileCommand, TimeUnit.SECONDS.toMillis(compileTimeoutSeconds));
+        String outcome = result.isTimedOut() ? "timeout" : result.getExitCode() == 0 ? "success" : "error";
+        metrics.recordCompile(submission.getLanguage(), outcome, System.nanoTime() - start);
+
+        if (result.isTimedOut()) {
+            return new CompileFailure("Compilation timed out after " + compileTimeoutSeconds + " seconds", true);
+        }
 
-            if (!Files.exists(outputPath)) {
-                log.error("Output file not created. Error: {}", errorOutput);
-                return "RUNTIME_ERROR";
+        if (result.getExitCode() == 0) {
+            if (cacheEnabled) {
+                artifactCache.store(submission.getLanguage(), sourceHash, sandbox.getWorkDir(), Set.of(getFileName(submission.getLanguage()), "compile.log"));
             }
+            return null;
+        }
 
-            String actualOutput = Files.readString(outputPath).trim();
-            String expectedOutput = testCase.getExpectedOutput().trim();
+        Path logPath = sandbox.getWorkDir().resolve("compile.log");
+        String compileLog = Files.exists(logPath)
+            ? OutputCapture.read(logPath, COMPILE_LOG_HEAD_BYTES, COMPILE_LOG_TAIL_BYTES).toString().trim()
+            : "";
+        // a killed compiler ran out of the sandbox's memory or time, which depends on the judge as much as the source
+        return new CompileFailure(compileLog.isEmpty() ? "Compiler exited with code " + result.getExitCode() : compileLog,
+            result.getExitCode() == KILLED_EXIT_CODE);
+    }
 
-            log.info("Expected: '{}', Got: '{}'", expectedOutput, actualOutput);
+    private TestRunResult executeCode(Submission submission, TestCase testCase, int index, Sandbox sandbox) throws InterruptedException {
+        try {
+            // test data is read straight from the store, which sandboxes see as a read-only mount
+            Path inputPath = testDataStore.path(TestDataKind.INPUT, testCase.getInputHash());
+            Path expectedPath = testDataStore.path(TestDataKind.OUTPUT, testCase.getExpectedOutputHash());
+            Path outputPath = sandbox.getWorkDir().resolve("output.txt");
+            Files.deleteIfExists(outputPath);
 
-            if (actualOutput.equals(expectedOutput)) {
-                return "ACCEPTED";
-            } else {
-                submission.setOutput("Expected: " + expectedOutput + "\nGot: " + actualOutput);
-                return "WRONG_ANSWER";
+            // measured CPU time and peak RSS cover the whole process, so runtimes with their own threads and
+            // off-heap memory (the JVM) get a fixed allowance on top of the problem's limits
+            int timeLimitMs = timeLimitMs(submission.getProblem());
+            int memoryLimitMb = memoryLimitMb(submission.getProblem());
+            int cpuLimitMs = timeLimitMs + cpuAllowanceMs(submission.getLanguage());
+            int rssLimitMb = memoryLimitMb + memoryAllowanceMb(submission.getLanguage());
+            String command = buildRunCommand(submission.getLanguage(), sandbox.visiblePath(inputPath), memoryLimitMb);
+            if (!timeCommand.isBlank()) {
+                command = ResourceUsage.measure(timeCommand, command);
             }
+            // the CPU rlimit stops busy loops, the wall clock limit stops programs that block, and the file size
+            // rlimit stops output.txt at the output limit (counted in 512-byte blocks by dash and busybox sh)
+            command = "ulimit -t " + (cpuLimitMs / 1000 + 1) + "; ulimit -f " + outputLimitBytes() / ULIMIT_BLOCK_BYTES + "; " + command;
+            log.debug("Executing: {} in {}", command, sandbox.getId());
 
+            ExecResult result = sandbox.exec(command, (long) cpuLimitMs * WALL_TIME_FACTOR + WALL_TIME_SLACK_MILLIS);
+            ResourceUsage usage = ResourceUsage.parse(result.getErrorOutput());
+            if (usage == null) {
+                usage = new ResourceUsage(result.getWallTimeMillis(), result.getWallTimeMillis(), -1);
+            }
+
+            TestRunResult outcome = judgeRun(submission, index, result, usage, cpuLimitMs, rssLimitMb, inputPath, expectedPath, outputPath);
+            outcome.setUsage(usage);
+            metrics.recordTestRun(submission.getLanguage(), outcome.getStatus(), usage.getWallTimeMillis());
+            log.debug("Test {} of submission {}: {} ({} ms CPU, {} ms wall, {} KB)", index + 1, submission.getId(),
+                outcome.getStatus(), usage.getCpuTimeMillis(), usage.getWallTimeMillis(), usage.getPeakMemoryKb());
+            return outcome;
+
+        } catch (InterruptedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Execution error: {}", e.getMessage(), e);
-            return "RUNTIME_ERROR";
+            return new TestRunResult(index, SubmissionStatus.RUNTIME_ERROR, null);
         }
     }
 
-    private String buildDockerCommand(Submission submission, String workDir) {
-        String baseCommand = String.format(
-            "docker run --rm -v %s:/code -w /code --memory=%s --cpus=%s --network=none %s ",
-            workDir, memoryLimit, cpuLimit, dockerImage
-        );
+    private TestRunResult judgeRun(Submission submission, int index, ExecResult result, ResourceUsage usage, int cpuLimitMs,
+                                   int rssLimitMb, Path inputPath, Path expectedPath, Path outputPath) throws IOException {
+        // a shell-run program is killed by SIGXFSZ, while a JVM only sees its writes fail and may spin until the time
+        // limit, so a full output file decides first
+        if (result.getExitCode() == FILE_SIZE_EXCEEDED_EXIT_CODE
+                || (Files.exists(outputPath) && Files.size(outputPath) >= outputLimitBytes())) {
+            return new TestRunResult(index, SubmissionStatus.OUTPUT_LIMIT_EXCEEDED, null);
+        }
+        if (result.isTimedOut() || usage.getCpuTimeMillis() > cpuLimitMs) {
+            return new TestRunResult(index, SubmissionStatus.TIME_LIMIT_EXCEEDED, null);
+        }
+        // a SIGKILL that was not a timeout comes from the container's OOM killer or the JVM's OutOfMemoryError hook
+        if (usage.getPeakMemoryKb() > rssLimitMb * 1024L || result.getExitCode() == KILLED_EXIT_CODE) {
+            return new TestRunResult(index, SubmissionStatus.MEMORY_LIMIT_EXCEEDED, null);
+        }
+
+        if (result.getExitCode() != 0) {
+            log.debug("Test {} of submission {} exited with code {}", index + 1, submission.getId(), result.getExitCode());
+            return new TestRunResult(index, SubmissionStatus.RUNTIME_ERROR, runError(result, "Exited with code " + result.getExitCode()));
+        }
+
+        if (!Files.exists(outputPath)) {
+            log.debug("Test {} of submission {} created no output file", index + 1, submission.getId());
+            return new TestRunResult(index, SubmissionStatus.RUNTIME_ERROR, runError(result, "No output file was created"));
+        }
+
+        OutputChecker checker = checkerRegistry.forProblem(submission.getProblem());
+        CheckResult check = checker.check(inputPath, expectedPath, outputPath);
+        return check.isAccepted()
+            ? new TestRunResult(index, SubmissionStatus.ACCEPTED, null)
+            : new TestRunResult(index, SubmissionStatus.WRONG_ANSWER, check.getMessage());
+    }
+
+    /**
+     * What the program wrote to stderr, cut to its head and tail, or the fallback when it wrote nothing.
+     */
+    private static String runError(ExecResult result, String fallback) {
+        String stderr = ResourceUsage.strip(result.getErrorOutput());
+        if (stderr.isEmpty()) {
+            return fallback;
+        }
+        OutputCapture capture = new OutputCapture(RUN_ERROR_HEAD_BYTES, RUN_ERROR_TAIL_BYTES);
+        byte[] bytes = stderr.getBytes(StandardCharsets.UTF_8);
+        capture.write(bytes, 0, bytes.length);
+        return capture.toString();
+    }
+
+    private int timeLimitMs(Problem problem) {
+        return problem.getTimeLimitMs() != null ? problem.getTimeLimitMs() : defaultTimeLimitMs;
+    }
+
+    private int cpuAllowanceMs(String language) {
+        return "java".equalsIgnoreCase(language) ? javaCpuAllowanceMs : 0;
+    }
+
+    private int memoryAllowanceMb(String language) {
+        return "java".equalsIgnoreCase(language) ? javaMemoryAllowanceMb : 0;
+    }
 
-        switch (submission.getLanguage().toLowerCase()) {
+    private long outputLimitBytes() {
+        return outputLimitMb * 1024L * 1024L;
+    }
+
+    private int memoryLimitMb(Problem problem) {
+        return problem.getMemoryLimitMb() != null ? problem.getMemoryLimitMb() : defaultMemoryLimitMb;
+    }
+
+    private String buildCompileCommand(String language) {
+        switch (language.toLowerCase()) {
+            case "java":
+                // Java: classes land next to the source in the work directory and are reused by every test run
+                return "javac Main.java > compile.log 2>&1";
+
+            case "cpp":
+                // C++: binary is kept in the work directory so it survives across test runs
+                return "g++ -std=c++17 -o main main.cpp > compile.log 2>&1";
+
+            default:
+                return null;
+        }
+    }
+
+    private String buildRunCommand(String language, String inputFile, int memoryLimitMb) {
+        switch (language.toLowerCase()) {
             case "java":
-                // Java: compile and run with stdin/stdout redirection
-                return baseCommand + "sh -c 'javac Main.java && java Main < input.txt > output.txt 2>&1'";
+                // Java: the heap is capped at the memory limit and an OutOfMemoryError kills the JVM so it reads as MLE;
+                // the serial collector keeps GC to one thread, so it adds little to the measured CPU time
+                return "java -Xmx" + memoryLimitMb + "m -XX:+UseSerialGC -XX:OnOutOfMemoryError=\"kill -9 %p\" Main < " + inputFile + " > output.txt";
 
             case "python":
-                // Python: run with stdin/stdout redirection
-                return baseCommand + "sh -c 'python3 main.py < input.txt > output.txt 2>&1'";
+                // Python: run with stdin/stdout redirection; stderr stays on the sandbox's stderr, where a failed run's
+                // diagnostics are taken from and where it cannot turn a right answer wrong
+                return "python3 main.py < " + inputFile + " > output.txt";
 
             case "cpp":
-                // C++: compile with execute permission, then run with stdin/stdout redirection
-                return baseCommand + "sh -c 'g++ -std=c++17 -o /tmp/a.out main.cpp && /tmp/a.out < input.txt > output.txt 2>&1'";
+                // C++: bind mounts may lack execute permission, so run a private copy from the temp directory
+                return "bin=$(mktemp) && cp main $bin && chmod +x $bin && $bin < " + inputFile + " > output.txt; "
+                    + "status=$?; rm -f $bin; exit $status";
 
             default:
-                return baseCommand + "sh -c 'echo Unsupported language > output.txt'";
+                return "echo Unsupported language > output.txt";
         }
     }
 
@@ -166,19 +762,16 @@ public class JudgeService {
         }
     }
 
-    private void cleanupWorkDirectory(String workDir) {
-        try {
-            Files.walk(Paths.get(workDir))
-                .sorted((a, b) -> b.compareTo(a))
-                .forEach(path -> {
-                    try {
-                        Files.delete(path);
-                    } catch (IOException e) {
-                        log.warn("Failed to delete: {}", path);
-                    }
-                });
-        } catch (IOException e) {
-            log.error("Cleanup error: {}", e.getMessage());
-        }
+    /**
+     * A judging's test results, and whether its verdict depends on the source alone and so may be cached.
+     */
+    private record SandboxRun(List<TestRunResult> results, boolean cacheable) {
+    }
+
+    /**
+     * Why a submission did not compile. A judge-dependent failure, such as a timeout, may not recur on a quieter
+     * machine, so it is never cached.
+     */
+    private record CompileFailure(String message, boolean judgeDependent) {
     }
 }
@@ -0,0 +1,14 @@
+package com.shodhai.contest.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class JudgeTask {
+    private Long submissionId;
+    private String userKey;
+    private boolean sampleOnly;
+    private long enqueuedAt;
+    private boolean rejudge;
+}
@@ -0,0 +1,69 @@
+package com.shodhai.contest.service;
+
+import com.shodhai.contest.dto.RejudgeRequest;
+import lombok.Getter;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one batch rejudge, updated by the rejudge thread and read by the admin API.
+ */
+@Getter
+public class RejudgeJob {
+
+    public enum State { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private final long id;
+    private final RejudgeRequest filter;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private volatile State state = State.RUNNING;
+    private volatile boolean allRequeued;
+    private volatile long requeued;
+    private volatile long waiting;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    RejudgeJob(long id, RejudgeRequest filter) {
+        this.id = id;
+        this.filter = filter;
+    }
+
+    /**
+     * Rejudged submissions that already have their new verdict.
+     */
+    public long getJudged() {
+        return Math.max(0, requeued - waiting);
+    }
+
+    void addRequeued(int count) {
+        requeued += count;
+    }
+
+    void setWaiting(long waiting) {
+        this.waiting = waiting;
+    }
+
+    void markAllRequeued() {
+        allRequeued = true;
+    }
+
+    synchronized boolean cancel() {
+        if (state != State.RUNNING) {
+            return false;
+        }
+        state = State.CANCELLED;
+        finishedAt = LocalDateTime.now();
+        return true;
+    }
+
+    synchronized void finish(State finalState, String error) {
+        if (state == State.RUNNING) {
+            state = finalState;
+            this.error = error;
+            finishedAt = LocalDateTime.now();
+        }
+    }
+
+    boolean isRunning() {
+        return state == State.RUNNING;
+    }
+}
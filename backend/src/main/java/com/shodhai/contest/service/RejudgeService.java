@@ -0,0 +1,134 @@
+package com.shodhai.contest.service;
+
+import com.shodhai.contest.config.ConditionalOnApi;
+import com.shodhai.contest.dto.RejudgeRequest;
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.repository.SubmissionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejudges existing submissions in the background, one job at a time. Matching ids are read in keyset pages and
+ * requeued a page at a time, and only while fewer than a page of earlier rejudges is still waiting, so the queue
+ * never holds much more than two pages of them. Rejudges are claimed after live submissions and served from the
+ * lowest lane of the judge queue, so contest traffic keeps priority. New verdicts reach the leaderboard through the
+ * usual judged events, which replace each submission's earlier verdict.
+ */
+@Service
+@ConditionalOnApi
+@RequiredArgsConstructor
+@Slf4j
+public class RejudgeService {
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionQueue submissionQueue;
+
+    @Value("${judge.rejudge.page-size:200}")
+    private int pageSize;
+
+    @Value("${judge.rejudge.poll-interval:2000}")
+    private long pollIntervalMillis;
+
+    private final AtomicLong jobIds = new AtomicLong();
+    private final Map<Long, RejudgeJob> jobs = new ConcurrentHashMap<>();
+    private RejudgeJob current;
+    private ExecutorService runner;
+
+    @PostConstruct
+    public void start() {
+        runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rejudge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        runner.shutdownNow();
+    }
+
+    public synchronized RejudgeJob rejudge(RejudgeRequest filter) {
+        if (filter.getContestId() == null && filter.getProblemId() == null && filter.getUsername() == null && filter.getStatus() == null) {
+            throw new IllegalArgumentException("A rejudge needs a contest, problem, user or status filter");
+        }
+        if (filter.getStatus() == SubmissionStatus.PENDING || filter.getStatus() == SubmissionStatus.RUNNING) {
+            throw new IllegalArgumentException("Submissions that are " + filter.getStatus() + " are already being judged");
+        }
+        if (current != null && current.isRunning()) {
+            throw new IllegalStateException("Rejudge " + current.getId() + " is still running");
+        }
+        RejudgeJob job = new RejudgeJob(jobIds.incrementAndGet(), filter);
+        jobs.put(job.getId(), job);
+        current = job;
+        runner.execute(() -> run(job));
+        log.info("Started rejudge {} for {}", job.getId(), filter);
+        return job;
+    }
+
+    public RejudgeJob get(Long jobId) {
+        RejudgeJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Rejudge not found");
+        }
+        return job;
+    }
+
+    /**
+     * Stops requeuing. Submissions already requeued are still judged.
+     */
+    public RejudgeJob cancel(Long jobId) {
+        RejudgeJob job = get(jobId);
+        if (job.cancel()) {
+            log.info("Cancelled rejudge {} after requeuing {} submissions", jobId, job.getRequeued());
+        }
+        return job;
+    }
+
+    private void run(RejudgeJob job) {
+        RejudgeRequest filter = job.getFilter();
+        long afterId = 0;
+        try {
+            while (job.isRunning()) {
+                long waiting = submissionQueue.countWaitingRejudges();
+                job.setWaiting(waiting);
+                if (job.isAllRequeued()) {
+                    if (waiting == 0) {
+                        break;
+                    }
+                } else if (waiting < pageSize) {
+                    List<Long> ids = submissionRepository.findRejudgeIds(afterId, filter.getContestId(), filter.getProblemId(),
+                        filter.getUsername(), filter.getStatus(), PageRequest.of(0, pageSize));
+                    if (ids.isEmpty()) {
+                        job.markAllRequeued();
+                        continue;
+                    }
+                    afterId = ids.get(ids.size() - 1);
+                    job.addRequeued(submissionQueue.requeueForRejudge(ids));
+                    continue;
+                }
+                Thread.sleep(pollIntervalMillis);
+            }
+            if (job.isRunning()) {
+                job.finish(RejudgeJob.State.COMPLETED, null);
+                log.info("Rejudge {} finished with {} submissions rejudged", job.getId(), job.getJudged());
+            }
+        } catch (InterruptedException e) {
+            job.finish(RejudgeJob.State.CANCELLED, "Interrupted by shutdown");
+        } catch (Exception e) {
+            log.error("Rejudge {} failed: {}", job.getId(), e.getMessage(), e);
+            job.finish(RejudgeJob.State.FAILED, e.getMessage());
+        }
+    }
+}
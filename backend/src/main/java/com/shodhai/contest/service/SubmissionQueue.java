@@ -0,0 +1,84 @@
+package com.shodhai.contest.service;
+
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.repository.QueuedSubmission;
+import com.shodhai.contest.repository.SubmissionRepository;
+import com.shodhai.contest.repository.SubmissionTestResultRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable judge queue backed by the submission table. PENDING rows are waiting work; a RUNNING row is leased by
+ * the node in {@code leaseOwner} until {@code leaseExpiresAt}. Claims are conditional updates, so only one node
+ * wins a submission, and a lease that is not renewed (crashed or stopped node) makes the row claimable again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionQueue {
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionTestResultRepository testResultRepository;
+
+    @Value("${judge.queue.lease-seconds:60}")
+    private int leaseSeconds;
+
+    @Getter
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    @Transactional(readOnly = true)
+    public List<QueuedSubmission> findClaimable(int limit) {
+        return submissionRepository.findClaimable(LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public long countClaimable() {
+        return submissionRepository.countClaimable(LocalDateTime.now());
+    }
+
+    @Transactional
+    public boolean claim(Long submissionId) {
+        LocalDateTime now = LocalDateTime.now();
+        return submissionRepository.claim(submissionId, nodeId, now, now.plusSeconds(leaseSeconds)) == 1;
+    }
+
+    /**
+     * Puts judged submissions back in the queue as rejudges, dropping their per-test results. Returns how many were
+     * requeued; submissions already waiting or running are left alone, results included. The requeue comes first and
+     * holds the rows it moved, so results are deleted only for queued rejudges, which a judge has not written to yet.
+     */
+    @Transactional
+    public int requeueForRejudge(List<Long> submissionIds) {
+        int requeued = submissionRepository.requeueForRejudge(submissionIds);
+        if (requeued > 0) {
+            testResultRepository.deleteForQueuedRejudges(submissionIds);
+        }
+        return requeued;
+    }
+
+    @Transactional(readOnly = true)
+    public long countWaitingRejudges() {
+        return submissionRepository.countByRejudgeTrueAndStatusIn(List.of(SubmissionStatus.PENDING, SubmissionStatus.RUNNING));
+    }
+
+    @Transactional
+    public void renew(Collection<Long> submissionIds) {
+        if (submissionIds.isEmpty()) {
+            return;
+        }
+        int renewed = submissionRepository.renewLeases(submissionIds, nodeId, LocalDateTime.now().plusSeconds(leaseSeconds));
+        if (renewed < submissionIds.size()) {
+            log.warn("Renewed {} of {} leases, the rest were taken over by another node", renewed, submissionIds.size());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.shodhai.contest.service;
+
+import com.shodhai.contest.cache.CacheStats;
+import com.shodhai.contest.cache.ViewCache;
+import com.shodhai.contest.entity.User;
+import com.shodhai.contest.repository.ProblemRepository;
+import com.shodhai.contest.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+/**
+ * Resolves what a submission refers to, so the submit path can insert it without reading anything back. User ids
+ * and problem ids never change once they exist, so both are cached; concurrent first submissions of one user share
+ * a single lookup. An unknown user is created in a short transaction of its own, and losing the race to create the
+ * same user on another node only means reading the winner's id.
+ */
+@Component
+@Slf4j
+public class SubmissionReferences {
+
+    private final UserRepository userRepository;
+    private final ProblemRepository problemRepository;
+    private final TransactionTemplate newTransaction;
+    private final ViewCache<String, Long> userIds;
+    private final ViewCache<String, Boolean> problems;
+
+    public SubmissionReferences(UserRepository userRepository, ProblemRepository problemRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${cache.references.max-users:100000}") int maxUsers,
+                                @Value("${cache.references.max-problems:4096}") int maxProblems) {
+        this.userRepository = userRepository;
+        this.problemRepository = problemRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.userIds = new ViewCache<>("user-ids", maxUsers);
+        this.problems = new ViewCache<>("problem-refs", maxProblems);
+    }
+
+    /**
+     * Id of the user with this name, creating the user on first use.
+     */
+    public Long userId(String username) {
+        if (username == null || username.isBlank()) {
+            throw new RuntimeException("Username is required");
+        }
+        return userIds.get(username, this::loadUserId);
+    }
+
+    public void requireProblem(String problemId) {
+        if (problemId == null) {
+            throw new RuntimeException("Problem not found");
+        }
+        problems.get(problemId, id -> {
+            if (!problemRepository.existsById(id)) {
+                throw new RuntimeException("Problem not found");
+            }
+            return Boolean.TRUE;
+        });
+    }
+
+    public List<CacheStats> stats() {
+        return List.of(userIds.stats(), problems.stats());
+    }
+
+    private Long loadUserId(String username) {
+        return userRepository.findIdByUsername(username).orElseGet(() -> createUser(username));
+    }
+
+    private Long createUser(String username) {
+        try {
+            return newTransaction.execute(status -> {
+                User user = new User();
+                user.setUsername(username);
+                return userRepository.saveAndFlush(user).getId();
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("User {} was created concurrently, reading its id", username);
+            return userRepository.findIdByUsername(username).orElseThrow(() -> e);
+        }
+    }
+}
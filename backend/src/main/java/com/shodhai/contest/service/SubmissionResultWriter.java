@@ -0,0 +1,81 @@
+package com.shodhai.contest.service;
+
+import com.shodhai.contest.entity.Submission;
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.entity.TestCase;
+import com.shodhai.contest.event.SubmissionJudgedEvent;
+import com.shodhai.contest.repository.SubmissionRepository;
+import com.shodhai.contest.sandbox.ResourceUsage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes the outcome of judging in one short transaction: a single conditional update of the submission and one
+ * JDBC batch for its per-test results. Nothing is written while tests run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionResultWriter {
+
+    private static final int MAX_DETAIL_LENGTH = 1000;
+    private static final String INSERT_RESULT = "INSERT INTO submission_test_result "
+        + "(submission_id, test_index, test_case_id, status, cpu_time_millis, wall_time_millis, memory_kb, detail) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final SubmissionRepository submissionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SubmissionQueue submissionQueue;
+
+    /**
+     * Records the verdict if this node still holds the submission's lease. Returns false, writing nothing, when
+     * the lease has been lost to another node.
+     */
+    @Transactional
+    public boolean finish(Submission submission, List<TestCase> testCases, List<TestRunResult> results) {
+        int updated = submissionRepository.completeJudging(submission.getId(), submissionQueue.getNodeId(), submission.getStatus(),
+            submission.getVerdict(), submission.getOutput(), submission.getExecutionTime(), submission.getMemoryUsed());
+        if (updated == 0) {
+            log.warn("Submission {} is no longer leased to this node, dropping its verdict", submission.getId());
+            return false;
+        }
+        if (!results.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RESULT, results, results.size(), (statement, result) -> {
+                ResourceUsage usage = result.getUsage();
+                statement.setLong(1, submission.getId());
+                statement.setInt(2, result.getIndex());
+                statement.setLong(3, testCases.get(result.getIndex()).getId());
+                statement.setString(4, result.getStatus().name());
+                if (usage != null) {
+                    statement.setLong(5, usage.getCpuTimeMillis());
+                    statement.setLong(6, usage.getWallTimeMillis());
+                } else {
+                    statement.setNull(5, Types.BIGINT);
+                    statement.setNull(6, Types.BIGINT);
+                }
+                if (usage != null && usage.getPeakMemoryKb() >= 0) {
+                    statement.setLong(7, usage.getPeakMemoryKb());
+                } else {
+                    statement.setNull(7, Types.BIGINT);
+                }
+                statement.setString(8, truncate(result.getDetail()));
+            });
+        }
+        SubmissionStatus status = submission.getStatus();
+        eventPublisher.publishEvent(new SubmissionJudgedEvent(submission.getId(), submission.getProblem().getContest().getId(),
+            submission.getProblem().getId(), submission.getUser().getUsername(), status, submission.getVerdict(),
+            submission.getSubmittedAt(), submission.isSampleOnly()));
+        return true;
+    }
+
+    private static String truncate(String detail) {
+        return detail == null || detail.length() <= MAX_DETAIL_LENGTH ? detail : detail.substring(0, MAX_DETAIL_LENGTH);
+    }
+}
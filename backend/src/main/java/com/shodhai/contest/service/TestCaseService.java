@@ -0,0 +1,72 @@
+package com.shodhai.contest.service;
+
+import com.shodhai.contest.config.ConditionalOnApi;
+import com.shodhai.contest.dto.TestCaseRequest;
+import com.shodhai.contest.dto.TestCaseResponse;
+import com.shodhai.contest.entity.Problem;
+import com.shodhai.contest.entity.TestCase;
+import com.shodhai.contest.repository.ProblemRepository;
+import com.shodhai.contest.repository.TestCaseRepository;
+import com.shodhai.contest.testdata.TestDataKind;
+import com.shodhai.contest.testdata.TestDataStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnApi
+@RequiredArgsConstructor
+public class TestCaseService {
+
+    private final ProblemRepository problemRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final TestDataStore testDataStore;
+
+    @Transactional(readOnly = true)
+    public List<TestCaseResponse> getTestCases(String problemId) {
+        return testCaseRepository.findByProblemIdOrderById(problemId).stream().map(this::toResponse).collect(Collectors.toList());
+    }
+
+    @Transactional
+    public TestCaseResponse addTestCase(String problemId, TestCaseRequest request) throws IOException {
+        Problem problem = problemRepository.findById(problemId).orElseThrow(() -> new RuntimeException("Problem not found"));
+        TestCase testCase = new TestCase();
+        testCase.setProblem(problem);
+        testCase.setInputHash(request.getInputHash());
+        testCase.setInputSize(storedSize(TestDataKind.INPUT, request.getInputHash()));
+        testCase.setExpectedOutputHash(request.getExpectedOutputHash());
+        testCase.setExpectedOutputSize(storedSize(TestDataKind.OUTPUT, request.getExpectedOutputHash()));
+        testCase.setSample(request.isSample());
+        return toResponse(testCaseRepository.save(testCase));
+    }
+
+    @Transactional
+    public void deleteTestCase(String problemId, Long testCaseId) {
+        TestCase testCase = testCaseRepository.findById(testCaseId)
+            .filter(tc -> tc.getProblem().getId().equals(problemId))
+            .orElseThrow(() -> new RuntimeException("Test case not found"));
+        testCaseRepository.delete(testCase);
+    }
+
+    private long storedSize(TestDataKind kind, String hash) throws IOException {
+        if (!testDataStore.exists(kind, hash)) {
+            throw new IllegalArgumentException("No " + kind.name().toLowerCase() + " test data with hash " + hash);
+        }
+        return Files.size(testDataStore.path(kind, hash));
+    }
+
+    private TestCaseResponse toResponse(TestCase testCase) {
+        TestCaseResponse response = new TestCaseResponse();
+        response.setId(testCase.getId());
+        response.setInputHash(testCase.getInputHash());
+        response.setInputSize(testCase.getInputSize());
+        response.setExpectedOutputHash(testCase.getExpectedOutputHash());
+        response.setExpectedOutputSize(testCase.getExpectedOutputSize());
+        response.setSample(testCase.isSample());
+        return response;
+    }
+}
@@ -0,0 +1,95 @@
+package com.shodhai.contest.service;
+
+import com.shodhai.contest.config.ConditionalOnJudging;
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.entity.TestCase;
+import com.shodhai.contest.repository.SubmissionTestResultRepository;
+import com.shodhai.contest.repository.TestCaseOutcomes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How often each test case fails and how much CPU it costs, seeded from stored per-test results and updated after
+ * every judging on this node. Used to run the tests most likely to fail, per millisecond spent, first.
+ */
+@Component
+@ConditionalOnJudging
+@RequiredArgsConstructor
+@Slf4j
+public class TestFailureStats {
+
+    // fixed cost of starting a run in a sandbox, so cheap tests are not ranked as free
+    private static final double RUN_OVERHEAD_MILLIS = 50;
+
+    private final SubmissionTestResultRepository testResultRepository;
+    private final Map<Long, Outcomes> outcomes = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (TestCaseOutcomes stored : testResultRepository.summarizeByTestCase(SubmissionStatus.ACCEPTED)) {
+            double averageCpu = stored.getAverageCpuMillis() == null ? 0 : stored.getAverageCpuMillis();
+            outcomes.put(stored.getTestCaseId(), new Outcomes(stored.getRuns(), stored.getFailures(), Math.round(averageCpu * stored.getRuns())));
+        }
+        log.info("Loaded failure statistics for {} test cases", outcomes.size());
+    }
+
+    public void record(List<TestCase> testCases, List<TestRunResult> results) {
+        for (TestRunResult result : results) {
+            long cpuMillis = result.getUsage() == null ? 0 : result.getUsage().getCpuTimeMillis();
+            outcomes.computeIfAbsent(testCases.get(result.getIndex()).getId(), id -> new Outcomes(0, 0, 0))
+                .add(!result.isAccepted(), cpuMillis);
+        }
+    }
+
+    /**
+     * Returns the indexes of the given tests, highest failure probability per expected millisecond first. Smoothing
+     * puts tests without history at even odds, so with no data at all the order stays canonical.
+     */
+    public List<Integer> fastFailOrder(List<TestCase> testCases) {
+        double[] scores = new double[testCases.size()];
+        for (int i = 0; i < testCases.size(); i++) {
+            Outcomes stats = outcomes.get(testCases.get(i).getId());
+            scores[i] = stats == null ? 0.5 / RUN_OVERHEAD_MILLIS : stats.failureProbability() / (stats.averageCpuMillis() + RUN_OVERHEAD_MILLIS);
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < testCases.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingDouble((Integer i) -> -scores[i]).thenComparingInt(i -> i));
+        return order;
+    }
+
+    static class Outcomes {
+        private long runs;
+        private long failures;
+        private long totalCpuMillis;
+
+        Outcomes(long runs, long failures, long totalCpuMillis) {
+            this.runs = runs;
+            this.failures = failures;
+            this.totalCpuMillis = totalCpuMillis;
+        }
+
+        synchronized void add(boolean failed, long cpuMillis) {
+            runs++;
+            failures += failed ? 1 : 0;
+            totalCpuMillis += cpuMillis;
+        }
+
+        synchronized double failureProbability() {
+            return (failures + 1.0) / (runs + 2.0);
+        }
+
+        synchronized double averageCpuMillis() {
+            return runs == 0 ? 0 : (double) totalCpuMillis / runs;
+        }
+    }
+}
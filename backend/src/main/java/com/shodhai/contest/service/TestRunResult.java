@@ -0,0 +1,17 @@
+package com.shodhai.contest.service;
+
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.sandbox.ResourceUsage;
+import lombok.Data;
+
+@Data
+public class TestRunResult {
+    private final int index;
+    private final SubmissionStatus status;
+    private final String detail;
+    private ResourceUsage usage;
+
+    public boolean isAccepted() {
+        return status == SubmissionStatus.ACCEPTED;
+    }
+}
@@ -0,0 +1,50 @@
+package com.shodhai.contest.stream;
+
+import com.shodhai.contest.config.ConditionalOnApi;
+import com.shodhai.contest.event.LeaderboardChangedEvent;
+import com.shodhai.contest.event.SubmissionJudgedEvent;
+import com.shodhai.contest.event.SubmissionProgressEvent;
+import com.shodhai.contest.service.ContestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forwards judge and leaderboard events to the stream topics that clients subscribe to.
+ */
+@Component
+@ConditionalOnApi
+@RequiredArgsConstructor
+public class StreamEventBridge {
+
+    private final StreamHub streamHub;
+    private final ContestService contestService;
+
+    public static String submissionTopic(Long submissionId) {
+        return "submission:" + submissionId;
+    }
+
+    public static String leaderboardTopic(String contestId) {
+        return "leaderboard:" + contestId;
+    }
+
+    @EventListener
+    public void onProgress(SubmissionProgressEvent event) {
+        streamHub.publish(submissionTopic(event.getSubmissionId()), "progress", event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJudged(SubmissionJudgedEvent event) {
+        String topic = submissionTopic(event.getSubmissionId());
+        if (streamHub.hasSubscribers(topic)) {
+            streamHub.publish(topic, "status", contestService.getSubmissionStatus(event.getSubmissionId()));
+            streamHub.complete(topic);
+        }
+    }
+
+    @EventListener
+    public void onLeaderboardChanged(LeaderboardChangedEvent event) {
+        streamHub.publish(leaderboardTopic(event.getContestId()), "delta", event);
+    }
+}
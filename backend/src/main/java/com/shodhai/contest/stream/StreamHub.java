@@ -0,0 +1,129 @@
+package com.shodhai.contest.stream;
+
+import com.shodhai.contest.config.ConditionalOnApi;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Topic-based fan-out of server-sent events. Publishing is a non-blocking append to each subscriber's outbox.
+ */
+@Component
+@ConditionalOnApi
+@Slf4j
+public class StreamHub {
+
+    @Value("${stream.timeout-millis:1800000}")
+    private long timeoutMillis;
+
+    @Value("${stream.max-subscriptions:10000}")
+    private int maxSubscriptions;
+
+    @Value("${stream.outbox-capacity:32}")
+    private int outboxCapacity;
+
+    private final Map<String, Set<Subscription>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    private final AtomicInteger threadIndex = new AtomicInteger();
+    private final ExecutorService dispatcher;
+
+    public StreamHub(@Value("${stream.dispatch-threads:4}") int dispatchThreads) {
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-dispatch-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * Opens a held stream on the topic; call {@link Subscription#start} once the initial state has been read.
+     * Returns null when the subscription limit is reached.
+     */
+    public Subscription subscribe(String topic) {
+        if (subscriptionCount.incrementAndGet() > maxSubscriptions) {
+            subscriptionCount.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(topic, emitter, outboxCapacity, dispatcher);
+        topics.compute(topic, (key, subscriptions) -> {
+            Set<Subscription> set = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+            set.add(subscription);
+            return set;
+        });
+        Runnable remove = () -> unsubscribe(subscription);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return subscription;
+    }
+
+    public void publish(String topic, String name, Object data) {
+        Set<Subscription> subscribers = topics.get(topic);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        for (Subscription subscriber : subscribers) {
+            subscriber.offer(SseEmitter.event().name(name).data(data));
+        }
+    }
+
+    /**
+     * Ends every stream on the topic once the events already queued for it have been delivered.
+     */
+    public void complete(String topic) {
+        Set<Subscription> subscribers = topics.get(topic);
+        if (subscribers != null) {
+            subscribers.forEach(Subscription::complete);
+        }
+    }
+
+    /**
+     * Drops a subscription that was opened but will not be handed to the client.
+     */
+    public void cancel(Subscription subscription) {
+        unsubscribe(subscription);
+    }
+
+    public boolean hasSubscribers(String topic) {
+        Set<Subscription> subscriptions = topics.get(topic);
+        return subscriptions != null && !subscriptions.isEmpty();
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptionCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${stream.heartbeat-millis:15000}")
+    public void heartbeat() {
+        for (Set<Subscription> subscribers : topics.values()) {
+            for (Subscription subscriber : subscribers) {
+                subscriber.offer(SseEmitter.event().comment("keepalive"));
+            }
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscription.markClosed();
+        topics.computeIfPresent(subscription.getTopic(), (key, subscriptions) -> {
+            if (subscriptions.remove(subscription)) {
+                subscriptionCount.decrementAndGet();
+            }
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package com.shodhai.contest.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+
+/**
+ * One SSE connection with its own bounded outbox. Publishers only append to the outbox; a single drain task at a
+ * time writes to the connection on the hub's dispatch pool, so a slow client never blocks the thread that
+ * published the event. When the outbox overflows, queued events are replaced by a single resync event that tells
+ * the client to reload its state. Nothing is written until {@link #start} is called, so the initial snapshot
+ * always goes out before any event that was published while it was being built.
+ */
+@Slf4j
+public class Subscription {
+
+    private static final SseEmitter.SseEventBuilder COMPLETE = SseEmitter.event();
+
+    private final String topic;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Executor dispatcher;
+    private final Deque<SseEmitter.SseEventBuilder> outbox = new ArrayDeque<>();
+    private boolean draining;
+    private boolean held = true;
+    private volatile boolean closed;
+
+    Subscription(String topic, SseEmitter emitter, int capacity, Executor dispatcher) {
+        this.topic = topic;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Sends the initial event, followed by everything published since the subscription was opened.
+     */
+    public void start(String name, Object data) {
+        synchronized (this) {
+            outbox.addFirst(SseEmitter.event().name(name).data(data));
+        }
+        start();
+    }
+
+    public void start() {
+        boolean schedule;
+        synchronized (this) {
+            held = false;
+            schedule = !draining && !outbox.isEmpty();
+            draining = schedule;
+        }
+        if (schedule) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    String getTopic() {
+        return topic;
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void offer(SseEmitter.SseEventBuilder event) {
+        if (closed) {
+            return;
+        }
+        boolean schedule;
+        synchronized (this) {
+            if (outbox.size() >= capacity) {
+                outbox.clear();
+                outbox.add(SseEmitter.event().name("resync").data("{}"));
+                if (event == COMPLETE) {
+                    outbox.add(COMPLETE);
+                }
+            } else {
+                outbox.add(event);
+            }
+            schedule = !draining && !held;
+            draining = draining || schedule;
+        }
+        if (schedule) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    public void complete() {
+        offer(COMPLETE);
+    }
+
+    void markClosed() {
+        closed = true;
+    }
+
+    private void drain() {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            synchronized (this) {
+                event = outbox.poll();
+                if (event == null) {
+                    draining = false;
+                    return;
+                }
+            }
+            if (closed) {
+                continue;
+            }
+            try {
+                if (event == COMPLETE) {
+                    closed = true;
+                    emitter.complete();
+                } else {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping subscriber on {}: {}", topic, e.getMessage());
+                closed = true;
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.shodhai.contest.testdata;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredBlob {
+    private String hash;
+    private long size;
+}
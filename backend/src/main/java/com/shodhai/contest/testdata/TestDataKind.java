@@ -0,0 +1,21 @@
+package com.shodhai.contest.testdata;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum TestDataKind {
+    INPUT("inputs"), OUTPUT("outputs");
+
+    private final String directory;
+
+    public static TestDataKind fromPath(String value) {
+        for (TestDataKind kind : values()) {
+            if (kind.directory.equals(value) || kind.name().equalsIgnoreCase(value)) {
+                return kind;
+            }
+        }
+        throw new IllegalArgumentException("Unknown test data kind: " + value);
+    }
+}
@@ -0,0 +1,126 @@
+package com.shodhai.contest.testdata;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for test data on local disk. Blobs are immutable and named by their SHA-256, laid out as
+ * {@code <root>/<kind>/<first two hex chars>/<hash>}. Inputs and expected outputs live in separate trees so that
+ * sandboxes can mount the inputs without ever seeing expected outputs.
+ */
+@Component
+@Slf4j
+public class TestDataStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Value("${judge.testdata.root:/tmp/shodh-testdata}")
+    private String root;
+
+    @Value("${judge.testdata.max-size:268435456}")
+    private long maxSize;
+
+    @PostConstruct
+    public void init() throws IOException {
+        for (TestDataKind kind : TestDataKind.values()) {
+            Files.createDirectories(root(kind));
+        }
+        Files.createDirectories(Paths.get(root, "tmp"));
+    }
+
+    public Path root(TestDataKind kind) {
+        return Paths.get(root, kind.getDirectory());
+    }
+
+    public Path path(TestDataKind kind, String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid test data hash: " + hash);
+        }
+        return root(kind).resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    public boolean exists(TestDataKind kind, String hash) {
+        return Files.exists(path(kind, hash));
+    }
+
+    /**
+     * Streams the data to a temporary file while hashing it, then moves it into place. Storing content that is
+     * already present keeps the existing blob.
+     */
+    public StoredBlob put(TestDataKind kind, InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(Paths.get(root, "tmp"), "upload-", ".part");
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new IllegalArgumentException("Test data exceeds the limit of " + maxSize + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(kind, hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                makeReadOnly(temp);
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+                    log.debug("Blob {} was stored concurrently", hash);
+                }
+            }
+            return new StoredBlob(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public StoredBlob put(TestDataKind kind, String content) throws IOException {
+        return put(kind, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public String readString(TestDataKind kind, String hash) throws IOException {
+        return Files.readString(path(kind, hash));
+    }
+
+    private void makeReadOnly(Path file) {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("r--r--r--"));
+        } catch (UnsupportedOperationException | IOException e) {
+            file.toFile().setReadOnly();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+-- Baseline schema, matching the JPA entities.
+-- Enum columns are stored as plain strings so new statuses do not need a migration.
+
+create table contest (
+    id varchar(255) not null primary key,
+    name varchar(255),
+    description varchar(1000),
+    start_time timestamp(6),
+    end_time timestamp(6)
+);
+
+create table problem (
+    id varchar(255) not null primary key,
+    contest_id varchar(255) references contest,
+    title varchar(255),
+    statement varchar(5000),
+    input_format varchar(1000),
+    output_format varchar(1000),
+    time_limit_ms integer,
+    memory_limit_mb integer,
+    test_parallelism integer,
+    checker_mode varchar(255),
+    float_tolerance float(53),
+    custom_checker varchar(255)
+);
+
+create table test_case (
+    id bigserial not null primary key,
+    problem_id varchar(255) references problem,
+    input_hash varchar(64),
+    input_size bigint not null,
+    expected_output_hash varchar(64),
+    expected_output_size bigint not null,
+    is_sample boolean not null
+);
+
+create table users (
+    id bigserial not null primary key,
+    username varchar(255) unique
+);
+
+create table submission (
+    id bigserial not null primary key,
+    user_id bigint references users,
+    problem_id varchar(255) references problem,
+    code varchar(10000),
+    language varchar(255),
+    sample_only boolean not null,
+    status varchar(255),
+    verdict varchar(255),
+    output varchar(5000),
+    submitted_at timestamp(6),
+    execution_time integer,
+    memory_used integer,
+    lease_owner varchar(255),
+    lease_expires_at timestamp(6),
+    attempts integer not null
+);
+
+create table submission_test_result (
+    id bigserial not null primary key,
+    submission_id bigint not null,
+    test_index integer not null,
+    test_case_id bigint,
+    status varchar(255),
+    cpu_time_millis bigint,
+    wall_time_millis bigint,
+    memory_kb bigint,
+    detail varchar(1000)
+);
+
+create index idx_problem_contest on problem (contest_id);
+create index idx_test_case_problem on test_case (problem_id);
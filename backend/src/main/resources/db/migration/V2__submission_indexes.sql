@@ -0,0 +1,11 @@
+-- Submissions of a problem by verdict (leaderboard rebuilds, accepted lookups).
+create index idx_submission_problem_status on submission (problem_id, status);
+
+-- A user's submissions to a problem.
+create index idx_submission_user_problem on submission (user_id, problem_id);
+
+-- Judge queue polling: pending rows and expired leases.
+create index idx_submission_status_lease on submission (status, lease_expires_at);
+
+-- Per-test results of a submission, in test order.
+create index idx_test_result_submission on submission_test_result (submission_id, test_index);
@@ -0,0 +1,2 @@
+-- Submissions requeued by a batch rejudge; the judge queue serves them after live submissions.
+alter table submission add column rejudge boolean not null default false;
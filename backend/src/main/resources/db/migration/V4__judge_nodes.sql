@@ -0,0 +1,14 @@
+-- Judging nodes and their advertised load, refreshed by each node's heartbeat.
+create table judge_node (
+    id varchar(255) not null primary key,
+    role varchar(255),
+    capacity integer not null,
+    busy integer not null,
+    queued integer not null,
+    started_at timestamp(6),
+    heartbeat_at timestamp(6)
+);
+
+-- When a verdict was written, so API nodes can follow verdicts written by judge workers.
+alter table submission add column judged_at timestamp(6);
+create index idx_submission_judged_at on submission (judged_at);
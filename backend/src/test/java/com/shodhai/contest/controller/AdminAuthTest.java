@@ -0,0 +1,68 @@
+package com.shodhai.contest.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The admin token has to hold for every spelling of an admin path that Spring MVC still maps to an admin handler,
+ * not only for the plain one.
+ */
+@SpringBootTest(properties = {"app.role=api", "app.admin.token=test-token"})
+@AutoConfigureMockMvc
+class AdminAuthTest {
+
+    private static final List<String> ADMIN_PATHS = List.of(
+        "/api/admin/caches",
+        "/api/admin;x/caches",
+        "/api/admin/caches;x",
+        "/api/%61dmin/caches",
+        "/api/admin/%63aches");
+
+    @TempDir
+    static Path tempDir;
+
+    @DynamicPropertySource
+    static void directories(DynamicPropertyRegistry registry) {
+        registry.add("judge.testdata.root", () -> tempDir.resolve("testdata").toString());
+        registry.add("judge.workdir", () -> tempDir.resolve("work").toString());
+        registry.add("judge.cache.artifacts.root", () -> tempDir.resolve("artifacts").toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void everySpellingOfAnAdminPathNeedsTheToken() throws Exception {
+        for (String path : ADMIN_PATHS) {
+            mockMvc.perform(get(URI.create(path))).andExpect(status().isUnauthorized());
+            mockMvc.perform(get(URI.create(path)).header(HttpHeaders.AUTHORIZATION, "Bearer wrong-token"))
+                .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Test
+    void everySpellingReachesTheAdminHandlerWithTheToken() throws Exception {
+        for (String path : ADMIN_PATHS) {
+            mockMvc.perform(get(URI.create(path)).header(HttpHeaders.AUTHORIZATION, "Bearer test-token"))
+                .andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void publicApiNeedsNoToken() throws Exception {
+        mockMvc.perform(get("/api/contests/contest-1")).andExpect(status().isOk());
+    }
+}
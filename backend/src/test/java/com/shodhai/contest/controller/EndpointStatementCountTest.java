@@ -0,0 +1,173 @@
+package com.shodhai.contest.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each public endpoint runs, so a change that brings back entity loading or N+1
+ * queries fails here. Statements are counted where connections hand them out, which covers Hibernate and plain JDBC
+ * alike, and only on the request thread. The node runs as an API node, so no judging writes race the counts. Each
+ * test reads data no other test reads, so its first call always misses the view caches.
+ */
+@SpringBootTest(properties = {"app.role=api", "app.sample-data=true"})
+@AutoConfigureMockMvc
+class EndpointStatementCountTest {
+
+    @TempDir
+    static Path tempDir;
+
+    @DynamicPropertySource
+    static void directories(DynamicPropertyRegistry registry) {
+        registry.add("judge.testdata.root", () -> tempDir.resolve("testdata").toString());
+        registry.add("judge.workdir", () -> tempDir.resolve("work").toString());
+        registry.add("judge.cache.artifacts.root", () -> tempDir.resolve("artifacts").toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void contestViewRunsTwoStatementsThenNone() throws Exception {
+        assertThat(statements(get("/api/contests/contest-1"))).isEqualTo(2);
+        assertThat(statements(get("/api/contests/contest-1"))).isZero();
+    }
+
+    @Test
+    void problemViewRunsTwoStatementsThenNone() throws Exception {
+        assertThat(statements(get("/api/problems/problem-2"))).isEqualTo(2);
+        assertThat(statements(get("/api/problems/problem-2"))).isZero();
+    }
+
+    @Test
+    void submitResolvesReferencesOnceThenOnlyInserts() throws Exception {
+        // first submission of a new user: look the user up, create it, check the problem, insert the submission
+        assertThat(statements(submit("first-timer", "problem-1"))).isEqualTo(4);
+        assertThat(statements(submit("first-timer", "problem-1"))).isEqualTo(1);
+    }
+
+    @Test
+    void statusAndTestResultsReadOnlyWhatTheyReturn() throws Exception {
+        long id = submissionId(submit("poller", "problem-3"));
+        assertThat(statements(get("/api/submissions/" + id))).isEqualTo(1);
+        assertThat(statements(get("/api/submissions/" + id + "/tests"))).isEqualTo(2);
+    }
+
+    @Test
+    void leaderboardIsServedFromMemory() throws Exception {
+        assertThat(statements(get("/api/contests/contest-1/leaderboard"))).isZero();
+        assertThat(statements(get("/api/contests/contest-1/leaderboard").param("around", "nobody"))).isZero();
+    }
+
+    private int statements(RequestBuilder request) throws Exception {
+        StatementCounter.start();
+        try {
+            mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+            return StatementCounter.count();
+        } finally {
+            StatementCounter.stop();
+        }
+    }
+
+    private RequestBuilder submit(String username, String problemId) {
+        return post("/api/submissions").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"username\":\"" + username + "\",\"problemId\":\"" + problemId
+                + "\",\"language\":\"python\",\"code\":\"print(1)\"}");
+    }
+
+    private long submissionId(RequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(jsonPath("$.submissionId").isNumber())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("submissionId").asLong();
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? StatementCounter.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Counts the statements created on the thread that started counting. Connections are wrapped as they leave the
+     * pool, so every statement, batched or not, is counted once when it is created.
+     */
+    static final class StatementCounter {
+
+        private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+        private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+        static void start() {
+            CURRENT.set(new int[1]);
+        }
+
+        static int count() {
+            return CURRENT.get()[0];
+        }
+
+        static void stop() {
+            CURRENT.remove();
+        }
+
+        static DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, result) ->
+                method.getName().equals("getConnection") ? proxy(Connection.class, (Connection) result, (m, r) -> {
+                    int[] count = CURRENT.get();
+                    if (count != null && STATEMENT_FACTORIES.contains(m.getName())) {
+                        count[0]++;
+                    }
+                    return r;
+                }) : result);
+        }
+
+        private static <T> T proxy(Class<T> type, T target, ResultHandler handler) {
+            InvocationHandler invocation = (proxy, method, args) -> {
+                try {
+                    return handler.handle(method, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocation));
+        }
+
+        private interface ResultHandler {
+            Object handle(Method method, Object result);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.shodhai.contest.leaderboard;
+
+import com.shodhai.contest.entity.Contest;
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.event.SubmissionJudgedEvent;
+import com.shodhai.contest.metrics.JudgeMetrics;
+import com.shodhai.contest.repository.ContestRepository;
+import com.shodhai.contest.repository.LeaderboardAttempt;
+import com.shodhai.contest.repository.SubmissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    private final ContestRepository contests = mock(ContestRepository.class);
+    private final SubmissionRepository submissions = mock(SubmissionRepository.class);
+    private final List<LeaderboardAttempt> stored = new ArrayList<>();
+    private LeaderboardService service;
+
+    @BeforeEach
+    void setUp() {
+        Contest contest = new Contest();
+        contest.setId("contest-1");
+        contest.setStartTime(START);
+        when(contests.findById("contest-1")).thenReturn(Optional.of(contest));
+        when(contests.findAll()).thenReturn(List.of(contest));
+        when(submissions.findLeaderboardAttempts(eq("contest-1"), any())).thenAnswer(invocation -> List.copyOf(stored));
+        service = new LeaderboardService(contests, submissions, mock(ApplicationEventPublisher.class), mock(JudgeMetrics.class));
+    }
+
+    @Test
+    void startupRebuildKeepsABoardBuiltOnFirstUse() {
+        judge(1L, "alice");
+        ContestBoard early = service.board("contest-1");
+        long version = early.getVersion();
+
+        service.rebuildAll();
+
+        assertThat(service.board("contest-1")).isSameAs(early);
+        assertThat(early.getVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void rebuildContinuesTheOldBoardsVersions() {
+        judge(1L, "alice");
+        judge(2L, "bob");
+        ContestBoard old = service.board("contest-1");
+        // only one of the two verdicts has reached the database read
+        stored.remove(1);
+
+        service.rebuild("contest-1");
+
+        ContestBoard fresh = service.board("contest-1");
+        assertThat(fresh).isNotSameAs(old);
+        assertThat(fresh.getVersion()).isGreaterThan(old.getVersion());
+    }
+
+    @Test
+    void verdictAfterRebuildLandsOnTheNewBoard() {
+        judge(1L, "alice");
+        service.rebuild("contest-1");
+
+        judge(2L, "bob");
+
+        assertThat(service.board("contest-1").rankOf("bob")).isGreaterThanOrEqualTo(0);
+    }
+
+    private void judge(Long id, String username) {
+        LocalDateTime submittedAt = START.plusMinutes(id);
+        stored.add(attempt(id, username, submittedAt));
+        service.onSubmissionJudged(new SubmissionJudgedEvent(id, "contest-1", "problem-1", username,
+            SubmissionStatus.ACCEPTED, "All test cases passed", submittedAt, false));
+    }
+
+    private static LeaderboardAttempt attempt(Long id, String username, LocalDateTime submittedAt) {
+        LeaderboardAttempt attempt = mock(LeaderboardAttempt.class);
+        when(attempt.getId()).thenReturn(id);
+        when(attempt.getUsername()).thenReturn(username);
+        when(attempt.getProblemId()).thenReturn("problem-1");
+        when(attempt.getStatus()).thenReturn(SubmissionStatus.ACCEPTED);
+        when(attempt.getSubmittedAt()).thenReturn(submittedAt);
+        return attempt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.shodhai.contest.sandbox;
+
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputCaptureTest {
+
+    @Test
+    void keepsShortOutputWhole() {
+        assertThat(capture("é中😀", 8, 8)).isEqualTo("é中😀");
+    }
+
+    @Test
+    void trimsCutCharactersAtBothEnds() {
+        // 3 bytes per character: a 4-byte head and tail each cut one character in half
+        String text = capture("中".repeat(10), 4, 4);
+
+        assertThat(text).doesNotContain("�");
+        assertThat(text).isEqualTo("中\n... [22 bytes omitted] ...\n中");
+    }
+
+    @Test
+    void trimsCutCharactersForEveryCutPosition() {
+        String source = "aé中😀".repeat(20);
+        for (int head = 0; head < 12; head++) {
+            for (int tail = 0; tail < 12; tail++) {
+                String text = capture(source, head, tail);
+                assertThat(text).as("head %d, tail %d", head, tail).doesNotContain("�");
+            }
+        }
+    }
+
+    private static String capture(String text, int headBytes, int tailBytes) {
+        OutputCapture capture = new OutputCapture(headBytes, tailBytes);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        // written in small pieces, the way a drained stream arrives
+        for (int offset = 0; offset < bytes.length; offset += 5) {
+            capture.write(bytes, offset, Math.min(5, bytes.length - offset));
+        }
+        return capture.toString();
+    }
+}
@@ -0,0 +1,62 @@
+#!/bin/bash
+# usage: cluster.sh [workers=2] [judge slots per worker=2] | cluster.sh stop
+# Starts a local cluster on one shared database: an H2 TCP server, an API-only node on :8080 and N judge workers
+# on :8081.. with the fake sandbox. Point loadtest.sh at :8080 and watch GET /api/admin/nodes
+# (export ADMIN_TOKEN first, the nodes pass it on to app.admin.token). Logs go to /tmp/shodh-cluster.
+set -e
+cd "$(dirname "$0")"
+RUN=/tmp/shodh-cluster
+JAR=../backend/target/shodh-a-code-1.0.0.jar
+
+if [ "$1" = "stop" ]; then
+    for pid in "$RUN"/*.pid; do
+        [ -f "$pid" ] && kill "$(cat "$pid")" 2>/dev/null || true
+        rm -f "$pid"
+    done
+    exit 0
+fi
+
+WORKERS=${1:-2}
+SLOTS=${2:-2}
+mkdir -p "$RUN"
+[ -f "$JAR" ] || (cd ../backend && mvn -B -q package -DskipTests)
+
+# the H2 driver ships inside the boot jar; its server mode lets every node share one in-memory database
+H2=$(unzip -Z1 "$JAR" | grep 'BOOT-INF/lib/h2-.*\.jar')
+unzip -o -q -j "$JAR" "$H2" -d "$RUN"
+java -cp "$RUN/$(basename "$H2")" org.h2.tools.Server -tcp -tcpPort 9092 -ifNotExists > "$RUN/h2.log" 2>&1 &
+echo $! > "$RUN/h2.pid"
+sleep 2
+
+DB="jdbc:h2:tcp://localhost:9092/mem:shodh;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+# test data is content-addressed and shared like a network volume would be; sandbox work directories and the
+# compiled artifact cache belong to one node (each node numbers its sandboxes from 0 and clears its cache on start)
+COMMON=(--spring.profiles.active=prod --DB_URL="$DB" --DB_DRIVER=org.h2.Driver --DB_USERNAME=sa --DB_PASSWORD=
+        --judge.sandbox.type=fake --judge.testdata.root="$RUN/testdata")
+
+wait_healthy() {
+    for _ in $(seq 1 60); do
+        curl -sf "http://localhost:$1/actuator/health" > /dev/null && return 0
+        sleep 1
+    done
+    echo "node on :$1 did not start, see $RUN" >&2
+    return 1
+}
+
+# the API node migrates the schema and loads the sample contest before any worker starts
+java -jar "$JAR" "${COMMON[@]}" --judge.workdir="$RUN/api/work" --judge.cache.artifacts.root="$RUN/api/artifacts" \
+    --app.role=api --app.sample-data=true --server.port=8080 > "$RUN/api.log" 2>&1 &
+echo $! > "$RUN/api.pid"
+wait_healthy 8080
+
+for i in $(seq 1 "$WORKERS"); do
+    port=$((8080 + i))
+    java -jar "$JAR" "${COMMON[@]}" --judge.workdir="$RUN/worker-$i/work" \
+        --judge.cache.artifacts.root="$RUN/worker-$i/artifacts" --app.role=worker --server.port=$port --judge.workers="$SLOTS" \
+        --judge.queue.poll-interval=200 --app.cluster.heartbeat-interval=500 > "$RUN/worker-$i.log" 2>&1 &
+    echo $! > "$RUN/worker-$i.pid"
+done
+for i in $(seq 1 "$WORKERS"); do
+    wait_healthy $((8080 + i))
+done
+echo "API on http://localhost:8080, $WORKERS workers with $SLOTS judge slots each; stop with $0 stop"
@@ -0,0 +1,66 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files and fails when a benchmark got slower or allocates more.
+
+usage: compare.py baseline.json candidate.json [--threshold PERCENT]
+"""
+import argparse
+import json
+import sys
+
+ALLOCATION = "gc.alloc.rate.norm"
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((run.get("params") or {}).items()))
+            key = run["benchmark"].rsplit(".", 2)[-2] + "." + run["benchmark"].rsplit(".", 1)[-1]
+            results[key + (f" [{params}]" if params else "")] = run
+        return results
+
+
+def change(old, new):
+    return (new - old) / old * 100 if old else 0.0
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=10.0, help="allowed slowdown or allocation growth in percent")
+    args = parser.parse_args()
+
+    baseline, candidate = load(args.baseline), load(args.candidate)
+    regressions = 0
+    print(f"{'benchmark':70} {'time':>12} {'change':>8} {'B/op':>12} {'change':>8}")
+    for key in sorted(candidate):
+        new = candidate[key]
+        unit = new["primaryMetric"]["scoreUnit"]
+        score = new["primaryMetric"]["score"]
+        alloc = new.get("secondaryMetrics", {}).get(ALLOCATION, {}).get("score")
+        old = baseline.get(key)
+        if old is None:
+            print(f"{key:70} {score:>9.3f} {unit[:2]:<2} {'new':>8}")
+            continue
+        # throughput modes report ops per time unit, where lower is worse
+        time_change = change(old["primaryMetric"]["score"], score)
+        if new["mode"] == "thrpt":
+            time_change = -time_change
+        alloc_change = change(old.get("secondaryMetrics", {}).get(ALLOCATION, {}).get("score") or 0, alloc or 0)
+        flagged = time_change > args.threshold or alloc_change > args.threshold
+        regressions += flagged
+        alloc_text = f"{alloc:>12.0f}" if alloc is not None else f"{'-':>12}"
+        print(f"{key:70} {score:>9.3f} {unit[:2]:<2} {time_change:>+7.1f}% {alloc_text} {alloc_change:>+7.1f}%"
+              + ("  REGRESSION" if flagged else ""))
+    for key in sorted(set(baseline) - set(candidate)):
+        print(f"{key:70} {'missing':>12}")
+
+    if regressions:
+        print(f"\n{regressions} benchmark(s) regressed by more than {args.threshold}%")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
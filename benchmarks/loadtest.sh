@@ -0,0 +1,7 @@
+#!/bin/bash
+# usage: loadtest.sh [--url http://localhost:8080] [--contestants 50] [--submissions 5] [--json report.json] ...
+# Start the backend with --judge.sandbox.type=fake first; see ContestLoadTest for all options.
+set -e
+cd "$(dirname "$0")"
+[ -f target/benchmarks.jar ] || mvn -B -q package -DskipTests
+java -cp target/benchmarks.jar com.shodhai.contest.loadtest.ContestLoadTest "$@"
@@ -0,0 +1,10 @@
+#!/bin/bash
+# usage: run.sh [jmh args], e.g. run.sh Leaderboard -p submissions=10000
+# Builds the benchmarks and writes JSON results with allocation rates to results/<commit>.json
+set -e
+cd "$(dirname "$0")"
+mvn -B -q package -DskipTests
+mkdir -p results
+name=$(git rev-parse --short HEAD 2>/dev/null || date +%Y%m%d-%H%M%S)
+java -jar target/benchmarks.jar -prof gc -rf json -rff "results/$name.json" "$@"
+echo "Results written to results/$name.json"
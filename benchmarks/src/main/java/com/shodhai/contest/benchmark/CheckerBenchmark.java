@@ -0,0 +1,94 @@
+package com.shodhai.contest.benchmark;
+
+import com.shodhai.contest.checker.CheckResult;
+import com.shodhai.contest.checker.ExactChecker;
+import com.shodhai.contest.checker.OutputChecker;
+import com.shodhai.contest.checker.TokenChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Output comparison of large, fully matching outputs, which is the worst case: every byte is read and compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CheckerBenchmark {
+
+    @Param({"1", "64"})
+    private int outputMb;
+
+    private final OutputChecker exact = new ExactChecker();
+    private final OutputChecker tokens = new TokenChecker(null);
+    private final OutputChecker tolerant = new TokenChecker(1e-6);
+    private Path directory;
+    private Path input;
+    private Path expected;
+    private Path actual;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("checker-bench");
+        input = Files.writeString(directory.resolve("input.txt"), "");
+        expected = directory.resolve("expected.txt");
+        // mixed integers and decimals, ten per line
+        Random random = new Random(42);
+        long target = outputMb * 1024L * 1024L;
+        try (BufferedWriter out = Files.newBufferedWriter(expected)) {
+            long written = 0;
+            while (written < target) {
+                StringBuilder line = new StringBuilder();
+                for (int i = 0; i < 10; i++) {
+                    line.append(i % 2 == 0 ? Integer.toString(random.nextInt(1_000_000)) : String.format(Locale.ROOT, "%.6f", random.nextDouble() * 1000));
+                    line.append(i == 9 ? '\n' : ' ');
+                }
+                out.write(line.toString());
+                written += line.length();
+            }
+        }
+        actual = Files.copy(expected, directory.resolve("output.txt"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(expected);
+        Files.deleteIfExists(actual);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public CheckResult exact() throws IOException {
+        return exact.check(input, expected, actual);
+    }
+
+    @Benchmark
+    public CheckResult tokens() throws IOException {
+        return tokens.check(input, expected, actual);
+    }
+
+    @Benchmark
+    public CheckResult tokensWithTolerance() throws IOException {
+        return tolerant.check(input, expected, actual);
+    }
+}
@@ -0,0 +1,103 @@
+package com.shodhai.contest.benchmark;
+
+import com.shodhai.contest.dto.LeaderboardEntry;
+import com.shodhai.contest.entity.SubmissionStatus;
+import com.shodhai.contest.leaderboard.ContestBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard work behind {@code ContestService.getLeaderboard}: rebuilding a board from every stored verdict, as on
+ * startup, applying one verdict to a full board, and reading the top of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LeaderboardBenchmark {
+
+    private static final int PROBLEMS = 6;
+    private static final SubmissionStatus[] VERDICTS = {SubmissionStatus.ACCEPTED, SubmissionStatus.ACCEPTED,
+        SubmissionStatus.WRONG_ANSWER, SubmissionStatus.WRONG_ANSWER, SubmissionStatus.TIME_LIMIT_EXCEEDED,
+        SubmissionStatus.RUNTIME_ERROR};
+
+    @Param({"10000", "100000", "1000000"})
+    private int submissions;
+
+    private final LocalDateTime startTime = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private String[] usernames;
+    private String[] problemIds;
+    private SubmissionStatus[] statuses;
+    private LocalDateTime[] submittedAt;
+    private String[] userPool;
+    private ContestBoard board;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        // about twenty submissions per participant, as in a busy contest
+        userPool = new String[Math.max(100, submissions / 20)];
+        for (int i = 0; i < userPool.length; i++) {
+            userPool[i] = "user-" + i;
+        }
+        usernames = new String[submissions];
+        problemIds = new String[submissions];
+        statuses = new SubmissionStatus[submissions];
+        submittedAt = new LocalDateTime[submissions];
+        for (int i = 0; i < submissions; i++) {
+            usernames[i] = userPool[random.nextInt(userPool.length)];
+            problemIds[i] = "problem-" + random.nextInt(PROBLEMS);
+            statuses[i] = VERDICTS[random.nextInt(VERDICTS.length)];
+            submittedAt[i] = startTime.plusSeconds(random.nextInt(5 * 3600));
+        }
+        board = build();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ContestBoard rebuild() {
+        return build();
+    }
+
+    /**
+     * Re-judges a stored submission with the opposite outcome, which moves its author on the board while keeping the
+     * board the same size from one invocation to the next.
+     */
+    @Benchmark
+    public ContestBoard.BoardChange applyVerdict() {
+        int i = next;
+        next = (next + 1) % submissions;
+        SubmissionStatus status = statuses[i] == SubmissionStatus.ACCEPTED ? SubmissionStatus.WRONG_ANSWER : SubmissionStatus.ACCEPTED;
+        statuses[i] = status;
+        return board.apply((long) i, usernames[i], problemIds[i], status, submittedAt[i]);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> topHundred() {
+        return board.page(0, 100);
+    }
+
+    private ContestBoard build() {
+        ContestBoard built = new ContestBoard(startTime);
+        for (int i = 0; i < submissions; i++) {
+            built.apply((long) i, usernames[i], problemIds[i], statuses[i], submittedAt[i]);
+        }
+        return built;
+    }
+}
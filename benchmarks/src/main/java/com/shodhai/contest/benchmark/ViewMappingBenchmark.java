@@ -0,0 +1,158 @@
+package com.shodhai.contest.benchmark;
+
+import com.shodhai.contest.cache.ViewCaches;
+import com.shodhai.contest.dto.ContestResponse;
+import com.shodhai.contest.dto.ProblemResponse;
+import com.shodhai.contest.repository.ContestRepository;
+import com.shodhai.contest.repository.ContestSummary;
+import com.shodhai.contest.repository.ProblemRepository;
+import com.shodhai.contest.repository.ProblemTitle;
+import com.shodhai.contest.repository.ProblemView;
+import com.shodhai.contest.repository.SampleTestData;
+import com.shodhai.contest.repository.TestCaseRepository;
+import com.shodhai.contest.sandbox.WorkDirectories;
+import com.shodhai.contest.service.ContestService;
+import com.shodhai.contest.testdata.TestDataKind;
+import com.shodhai.contest.testdata.TestDataStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * DTO mapping in {@code getContest} and {@code getProblem}, over in-memory repositories so only the mapping, sample
+ * reads and cache are measured. With a cache size of 0 every call maps again; otherwise calls are cache hits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ViewMappingBenchmark {
+
+    private static final String CONTEST_ID = "contest-1";
+    private static final String PROBLEM_ID = "problem-1";
+
+    @Param({"0", "64"})
+    private int cacheSize;
+
+    private Path testDataRoot;
+    private ContestService contestService;
+
+    @Setup
+    public void setUp() throws Exception {
+        testDataRoot = Files.createTempDirectory("view-bench");
+        TestDataStore testDataStore = new TestDataStore();
+        setField(testDataStore, "root", testDataRoot.toString());
+        setField(testDataStore, "maxSize", Long.MAX_VALUE);
+        testDataStore.init();
+
+        List<SampleTestData> samples = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String inputHash = store(testDataStore, TestDataKind.INPUT, (i + 1) + " " + (i + 2) + "\n");
+            String outputHash = store(testDataStore, TestDataKind.OUTPUT, (2 * i + 3) + "\n");
+            samples.add(new SampleTestData() {
+                public String getInputHash() { return inputHash; }
+                public String getExpectedOutputHash() { return outputHash; }
+            });
+        }
+        List<ProblemTitle> titles = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            String id = "problem-" + i;
+            titles.add(new ProblemTitle() {
+                public String getId() { return id; }
+                public String getTitle() { return "Problem " + id; }
+            });
+        }
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        ContestSummary contest = new ContestSummary() {
+            public String getId() { return CONTEST_ID; }
+            public String getName() { return "Benchmark Contest"; }
+            public String getDescription() { return "Contest used by the view mapping benchmark"; }
+            public LocalDateTime getStartTime() { return start; }
+            public LocalDateTime getEndTime() { return start.plusHours(3); }
+        };
+        String statement = "Given two integers, print their sum. ".repeat(30);
+        ProblemView problem = new ProblemView() {
+            public String getId() { return PROBLEM_ID; }
+            public String getContestId() { return CONTEST_ID; }
+            public String getTitle() { return "Sum of Two Numbers"; }
+            public String getStatement() { return statement; }
+            public String getInputFormat() { return "Two integers a and b"; }
+            public String getOutputFormat() { return "Their sum"; }
+            public Integer getTimeLimitMs() { return 2000; }
+            public Integer getMemoryLimitMb() { return 256; }
+        };
+
+        ContestRepository contests = repository(ContestRepository.class, Map.of(
+            "findSummaryById", id -> Optional.of(contest)));
+        ProblemRepository problems = repository(ProblemRepository.class, Map.of(
+            "findTitlesByContestIdOrderById", id -> titles,
+            "findViewById", id -> Optional.of(problem)));
+        TestCaseRepository testCases = repository(TestCaseRepository.class, Map.of(
+            "findSamplesByProblemId", id -> samples));
+        // collaborators that getContest and getProblem never touch are left null
+        contestService = new ContestService(contests, problems, testCases, null, null, null, null, testDataStore, null, null,
+            new ViewCaches(cacheSize, cacheSize), null, null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        WorkDirectories.clean(testDataRoot);
+        Files.deleteIfExists(testDataRoot);
+    }
+
+    @Benchmark
+    public ContestResponse getContest() {
+        return contestService.getContest(CONTEST_ID);
+    }
+
+    @Benchmark
+    public ProblemResponse getProblem() {
+        return contestService.getProblem(PROBLEM_ID);
+    }
+
+    private static String store(TestDataStore store, TestDataKind kind, String content) throws IOException {
+        return store.put(kind, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))).getHash();
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R repository(Class<R> type, Map<String, Function<Object, Object>> queries) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object, Object> query = queries.get(method.getName());
+            if (query == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return query.apply(args[0]);
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.shodhai.contest.benchmark;
+
+import com.shodhai.contest.sandbox.WorkDirectories;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One sandbox lease as the judge sees it on disk: the source is written into the work directory, compiling and
+ * running leave files behind, and the reset on release deletes them and checks the directory is empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WorkDirectoryBenchmark {
+
+    /**
+     * Files left behind by compiling and running, e.g. one per class of a Java submission.
+     */
+    @Param({"2", "50"})
+    private int artifacts;
+
+    private Path workDir;
+    private byte[] source;
+    private byte[] artifact;
+    private byte[] output;
+
+    @Setup
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("workdir-bench");
+        source = "public class Main { public static void main(String[] args) { System.out.println(42); } }\n".repeat(40)
+            .getBytes(StandardCharsets.UTF_8);
+        artifact = new byte[2048];
+        output = new byte[64 * 1024];
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        WorkDirectories.clean(workDir);
+        Files.deleteIfExists(workDir);
+    }
+
+    @Benchmark
+    public boolean prepareAndReset() throws IOException {
+        Files.write(workDir.resolve("Main.java"), source);
+        for (int i = 0; i < artifacts; i++) {
+            Files.write(workDir.resolve("Main$" + i + ".class"), artifact);
+        }
+        Files.write(workDir.resolve("compile.log"), new byte[0]);
+        Files.write(workDir.resolve("output.txt"), output);
+        WorkDirectories.clean(workDir);
+        return WorkDirectories.isEmpty(workDir);
+    }
+}
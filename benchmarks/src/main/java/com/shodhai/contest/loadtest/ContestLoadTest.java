@@ -0,0 +1,371 @@
+package com.shodhai.contest.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates the start of a contest: contestants arrive over a short ramp, open the contest and every problem, then
+ * alternate between thinking, submitting, polling for the verdict and checking the leaderboard. Meant to run against
+ * a backend started with {@code judge.sandbox.type=fake}, whose verdicts follow the {@code fake-verdict} marker in
+ * the submitted code, so every verdict can also be checked against the outcome the contestant asked for.
+ */
+public class ContestLoadTest {
+
+    private static final Set<String> PENDING_STATUSES = Set.of("PENDING", "RUNNING");
+    private static final String[] LANGUAGES = {"python", "python", "python", "cpp", "cpp", "java"};
+    // outcome mix of a typical contest, in percent
+    private static final Map<String, Integer> OUTCOMES = outcomes();
+
+    private final Options options;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LatencyRecorder contestRequests = new LatencyRecorder("contest");
+    private final LatencyRecorder problemRequests = new LatencyRecorder("problem");
+    private final LatencyRecorder submitRequests = new LatencyRecorder("submit");
+    private final LatencyRecorder statusRequests = new LatencyRecorder("status");
+    private final LatencyRecorder leaderboardRequests = new LatencyRecorder("leaderboard");
+    private final LatencyRecorder verdicts = new LatencyRecorder("verdict");
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicInteger unexpected = new AtomicInteger();
+    private final AtomicInteger leaderboardNotModified = new AtomicInteger();
+    private final AtomicLong leaderboardBytes = new AtomicLong();
+    private final Map<String, AtomicInteger> verdictCounts = new ConcurrentHashMap<>();
+
+    ContestLoadTest(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ContestLoadTest test = new ContestLoadTest(options);
+        long start = System.currentTimeMillis();
+        test.run();
+        Map<String, Object> report = test.report((System.currentTimeMillis() - start) / 1000.0);
+        if (options.jsonFile != null) {
+            test.mapper.writerWithDefaultPrettyPrinter().writeValue(new File(options.jsonFile), report);
+        }
+        System.exit(test.verdicts.getErrors() + test.unexpected.get() > 0 ? 1 : 0);
+    }
+
+    void run() throws Exception {
+        JsonNode contest = getJson("/api/contests/" + options.contestId);
+        List<String> problemIds = new ArrayList<>();
+        contest.get("problems").forEach(problem -> problemIds.add(problem.get("id").asText()));
+        System.out.printf("Load test: %d contestants x %d submissions on %s (%d problems) at %s, seed %d%n", options.contestants,
+            options.submissions, options.contestId, problemIds.size(), options.baseUrl, options.seed);
+
+        ExecutorService pool = Executors.newFixedThreadPool(options.contestants);
+        for (int i = 0; i < options.contestants; i++) {
+            int index = i;
+            pool.execute(() -> new Contestant(index, problemIds).run());
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.DAYS);
+    }
+
+    private final class Contestant implements Runnable {
+
+        private final String username;
+        private final List<String> problemIds;
+        private final Random random;
+        private long nextLeaderboardAt;
+        private String leaderboardEtag;
+        private int submitted;
+
+        Contestant(int index, List<String> problemIds) {
+            this.username = "load-" + options.seed + "-" + index;
+            this.problemIds = problemIds;
+            this.random = new Random(options.seed * 1_000_003L + index);
+        }
+
+        @Override
+        public void run() {
+            try {
+                // arrivals bunch up at the start of the ramp, as everyone opens the contest when it begins
+                sleep((long) (Math.pow(random.nextDouble(), 2) * options.rampSeconds * 1000));
+                timed(contestRequests, "/api/contests/" + options.contestId);
+                for (String problemId : problemIds) {
+                    timed(problemRequests, "/api/problems/" + problemId);
+                }
+                checkLeaderboard();
+                for (int i = 0; i < options.submissions; i++) {
+                    think();
+                    submitAndAwait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void think() throws InterruptedException {
+            long until = System.currentTimeMillis() + (long) (-Math.log(1 - random.nextDouble()) * options.thinkSeconds * 1000);
+            while (System.currentTimeMillis() < until) {
+                sleep(Math.min(until - System.currentTimeMillis(), Math.max(0, nextLeaderboardAt - System.currentTimeMillis())));
+                if (System.currentTimeMillis() >= nextLeaderboardAt) {
+                    checkLeaderboard();
+                }
+            }
+        }
+
+        private void submitAndAwait() throws InterruptedException {
+            String language = LANGUAGES[random.nextInt(LANGUAGES.length)];
+            String outcome = pickOutcome();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("username", username);
+            body.put("contestId", options.contestId);
+            body.put("problemId", problemIds.get(random.nextInt(problemIds.size())));
+            body.put("language", language);
+            // a unique comment keeps the backend's verdict cache from answering for the judge
+            body.put("code", code(language, outcome) + comment(language) + " " + username + "-" + (submitted++) + "\n");
+
+            long submittedAt = System.currentTimeMillis();
+            Long submissionId = null;
+            while (submissionId == null) {
+                long start = System.currentTimeMillis();
+                try {
+                    HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/submissions"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body))));
+                    if (response.statusCode() == 429) {
+                        rejected.incrementAndGet();
+                        sleep(1000 * response.headers().firstValueAsLong("Retry-After").orElse(1));
+                        continue;
+                    }
+                    if (response.statusCode() != 200) {
+                        submitRequests.error();
+                        verdicts.error();
+                        return;
+                    }
+                    submitRequests.record(System.currentTimeMillis() - start);
+                    submissionId = mapper.readTree(response.body()).get("submissionId").asLong();
+                } catch (IOException e) {
+                    submitRequests.error();
+                    verdicts.error();
+                    return;
+                }
+            }
+
+            long deadline = submittedAt + options.verdictTimeoutSeconds * 1000L;
+            while (System.currentTimeMillis() < deadline) {
+                sleep(options.pollMillis);
+                JsonNode status = timed(statusRequests, "/api/submissions/" + submissionId);
+                if (status != null && !PENDING_STATUSES.contains(status.get("status").asText())) {
+                    String verdict = status.get("status").asText();
+                    verdicts.record(System.currentTimeMillis() - submittedAt);
+                    verdictCounts.computeIfAbsent(verdict, key -> new AtomicInteger()).incrementAndGet();
+                    if (!verdict.equals(expectedVerdict(language, outcome))) {
+                        unexpected.incrementAndGet();
+                    }
+                    checkLeaderboard();
+                    return;
+                }
+            }
+            verdicts.error();
+        }
+
+        /**
+         * Polls the leaderboard the way a browser does: gzip accepted and the last ETag sent back.
+         */
+        private void checkLeaderboard() {
+            nextLeaderboardAt = System.currentTimeMillis() + options.leaderboardSeconds * 1000L;
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri("/api/contests/" + options.contestId + "/leaderboard?limit=50"))
+                .header("Accept-Encoding", "gzip").GET();
+            if (leaderboardEtag != null) {
+                request.header("If-None-Match", leaderboardEtag);
+            }
+            long start = System.currentTimeMillis();
+            try {
+                HttpResponse<byte[]> response = client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() == 304) {
+                    leaderboardNotModified.incrementAndGet();
+                } else if (response.statusCode() == 200) {
+                    leaderboardBytes.addAndGet(response.body().length);
+                    leaderboardEtag = response.headers().firstValue("ETag").orElse(null);
+                } else {
+                    leaderboardRequests.error();
+                    return;
+                }
+                leaderboardRequests.record(System.currentTimeMillis() - start);
+            } catch (IOException e) {
+                leaderboardRequests.error();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private String pickOutcome() {
+            int roll = random.nextInt(100);
+            for (Map.Entry<String, Integer> outcome : OUTCOMES.entrySet()) {
+                roll -= outcome.getValue();
+                if (roll < 0) {
+                    return outcome.getKey();
+                }
+            }
+            return "ACCEPTED";
+        }
+
+        private JsonNode timed(LatencyRecorder recorder, String path) {
+            long start = System.currentTimeMillis();
+            try {
+                JsonNode body = getJson(path);
+                recorder.record(System.currentTimeMillis() - start);
+                return body;
+            } catch (IOException | RuntimeException e) {
+                recorder.error();
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    private JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri(path)).GET());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " returned " + response.statusCode());
+        }
+        return mapper.readTree(response.body());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(options.baseUrl + path);
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    static String code(String language, String outcome) {
+        String marker = "fake-verdict: " + outcome;
+        switch (language) {
+            case "java":
+                return "// " + marker + "\npublic class Main { public static void main(String[] args) { } }\n";
+            case "cpp":
+                return "// " + marker + "\nint main() { return 0; }\n";
+            default:
+                return "# " + marker + "\nprint(input())\n";
+        }
+    }
+
+    static String comment(String language) {
+        return language.equals("python") ? "#" : "//";
+    }
+
+    static String expectedVerdict(String language, String outcome) {
+        // without a compile step the fake sandbox reports a compilation error when the program runs
+        return outcome.equals("COMPILATION_ERROR") && language.equals("python") ? "RUNTIME_ERROR" : outcome;
+    }
+
+    private static Map<String, Integer> outcomes() {
+        Map<String, Integer> outcomes = new LinkedHashMap<>();
+        outcomes.put("ACCEPTED", 45);
+        outcomes.put("WRONG_ANSWER", 30);
+        outcomes.put("COMPILATION_ERROR", 8);
+        outcomes.put("RUNTIME_ERROR", 8);
+        outcomes.put("TIME_LIMIT_EXCEEDED", 5);
+        outcomes.put("MEMORY_LIMIT_EXCEEDED", 4);
+        return outcomes;
+    }
+
+    Map<String, Object> report(double seconds) {
+        List<LatencyRecorder> requests = List.of(contestRequests, problemRequests, submitRequests, statusRequests, leaderboardRequests);
+        int requestCount = requests.stream().mapToInt(r -> r.getCount() + r.getErrors()).sum();
+        int requestErrors = requests.stream().mapToInt(LatencyRecorder::getErrors).sum();
+
+        System.out.printf("%nDuration %.1f s%n", seconds);
+        System.out.printf("Submissions: %d judged, %d failed or timed out, %d rejected with 429 and retried, %d unexpected verdicts%n",
+            verdicts.getCount(), verdicts.getErrors(), rejected.get(), unexpected.get());
+        System.out.printf("Throughput: %.2f verdicts/s, %.1f requests/s, %.2f%% request errors%n", verdicts.getCount() / seconds,
+            requestCount / seconds, requestCount == 0 ? 0.0 : 100.0 * requestErrors / requestCount);
+        System.out.printf("Verdicts: %s%n", new TreeMap<>(verdictCounts));
+        System.out.printf("Leaderboard: %d of %d polls not modified, %d KB of bodies received%n", leaderboardNotModified.get(),
+            leaderboardRequests.getCount(), leaderboardBytes.get() / 1024);
+        System.out.printf("%n%-12s %8s %7s %8s %8s %8s %8s%n", "ms", "count", "errors", "p50", "p90", "p99", "max");
+        List<LatencyRecorder> all = new ArrayList<>(requests);
+        all.add(verdicts);
+        for (LatencyRecorder recorder : all) {
+            System.out.printf("%-12s %8d %7d %8d %8d %8d %8d%n", recorder.getName(), recorder.getCount(), recorder.getErrors(),
+                recorder.percentile(50), recorder.percentile(90), recorder.percentile(99), recorder.percentile(100));
+        }
+        System.out.printf("(verdict latency is measured by polling every %d ms)%n", options.pollMillis);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options);
+        report.put("durationSeconds", seconds);
+        report.put("verdictsPerSecond", verdicts.getCount() / seconds);
+        report.put("requestsPerSecond", requestCount / seconds);
+        report.put("rejected", rejected.get());
+        report.put("unexpectedVerdicts", unexpected.get());
+        report.put("verdictCounts", verdictCounts);
+        report.put("leaderboardNotModified", leaderboardNotModified.get());
+        report.put("leaderboardBytes", leaderboardBytes.get());
+        Map<String, Object> latencies = new LinkedHashMap<>();
+        all.forEach(recorder -> latencies.put(recorder.getName(), recorder.summary()));
+        report.put("latencyMillis", latencies);
+        return report;
+    }
+
+    public static class Options {
+        public String baseUrl = "http://localhost:8080";
+        public String contestId = "contest-1";
+        public int contestants = 50;
+        public int submissions = 5;
+        public int rampSeconds = 10;
+        public double thinkSeconds = 5;
+        public int pollMillis = 500;
+        public int leaderboardSeconds = 10;
+        public int verdictTimeoutSeconds = 300;
+        public long seed = 42;
+        public String jsonFile;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i++]) {
+                    case "--url": options.baseUrl = value; break;
+                    case "--contest": options.contestId = value; break;
+                    case "--contestants": options.contestants = Integer.parseInt(value); break;
+                    case "--submissions": options.submissions = Integer.parseInt(value); break;
+                    case "--ramp-seconds": options.rampSeconds = Integer.parseInt(value); break;
+                    case "--think-seconds": options.thinkSeconds = Double.parseDouble(value); break;
+                    case "--poll-millis": options.pollMillis = Integer.parseInt(value); break;
+                    case "--leaderboard-seconds": options.leaderboardSeconds = Integer.parseInt(value); break;
+                    case "--verdict-timeout-seconds": options.verdictTimeoutSeconds = Integer.parseInt(value); break;
+                    case "--seed": options.seed = Long.parseLong(value); break;
+                    case "--json": options.jsonFile = value; break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+                }
+            }
+            return options;
+        }
+    }
+}
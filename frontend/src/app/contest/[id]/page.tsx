@@ -1,5 +1,5 @@
 'use client'
-import { useState, useEffect } from 'react'
+import { useState, useEffect, useRef } from 'react'
 import { useParams } from 'next/navigation'
 import axios from 'axios'
 import dynamic from 'next/dynamic'
@@ -7,8 +7,15 @@ const MonacoEditor = dynamic(() => import('@monaco-editor/react'), { ssr: false
 const API_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080/api'
 interface Problem { id: string; title: string }
 interface Contest { id: string; name: string; description: string; problems: Problem[] }
-interface ProblemDetail { id: string; title: string; statement: string; inputFormat: string; outputFormat: string; sampleTestCases: Array<{ input: string; expectedOutput: string }> }
-interface LeaderboardEntry { username: string; score: number; problemsSolved: number; rank: number }
+interface ProblemDetail { id: string; title: string; statement: string; inputFormat: string; outputFormat: string; timeLimitMs: number; memoryLimitMb: number; sampleTestCases: Array<{ input: string; expectedOutput: string }> }
+interface LeaderboardEntry { username: string; score: number; problemsSolved: number; penalty: number; rank: number }
+interface LeaderboardDelta { version: number; username: string; previousRank: number | null; entry: LeaderboardEntry | null }
+const FINAL = (status: string) => !['PENDING', 'RUNNING'].includes(status)
+const applyDelta = (entries: LeaderboardEntry[], delta: LeaderboardDelta) => {
+  const next = entries.filter((e) => e.username !== delta.username)
+  if (delta.entry) next.splice(delta.entry.rank - 1, 0, delta.entry)
+  return next.map((e, i) => ({ ...e, rank: i + 1 }))
+}
 export default function ContestPage() {
   const params = useParams()
   const contestId = params.id as string
@@ -20,19 +27,55 @@ export default function ContestPage() {
   const [submissionId, setSubmissionId] = useState<number | null>(null)
   const [leaderboard, setLeaderboard] = useState<LeaderboardEntry[]>([])
   const [username, setUsername] = useState('')
+  const leaderboardVersion = useRef(0)
   useEffect(() => {
     const stored = localStorage.getItem('username')
     if (stored) setUsername(stored)
     fetchContest()
-    fetchLeaderboard()
-    const leaderboardInterval = setInterval(fetchLeaderboard, 20000)
-    return () => clearInterval(leaderboardInterval)
+    if (typeof EventSource === 'undefined') {
+      fetchLeaderboard()
+      const leaderboardInterval = setInterval(fetchLeaderboard, 20000)
+      return () => clearInterval(leaderboardInterval)
+    }
+    // The stream opens with a versioned snapshot; a gap in delta versions or a resync reopens it for a fresh one.
+    let source: EventSource
+    const open = () => {
+      source = new EventSource(`${API_URL}/contests/${contestId}/leaderboard/events`)
+      source.addEventListener('snapshot', (e) => {
+        const snapshot = JSON.parse((e as MessageEvent).data)
+        leaderboardVersion.current = snapshot.version
+        setLeaderboard(snapshot.entries)
+      })
+      source.addEventListener('delta', (e) => {
+        const delta: LeaderboardDelta = JSON.parse((e as MessageEvent).data)
+        if (delta.version <= leaderboardVersion.current) return
+        if (delta.version !== leaderboardVersion.current + 1) { reopen(); return }
+        leaderboardVersion.current = delta.version
+        setLeaderboard((entries) => applyDelta(entries, delta))
+      })
+      source.addEventListener('resync', reopen)
+    }
+    const reopen = () => { source.close(); open() }
+    open()
+    return () => source.close()
   }, [])
   useEffect(() => {
-    if (submissionId) {
-      const interval = setInterval(() => checkSubmissionStatus(submissionId), 2000)
-      return () => clearInterval(interval)
-    }
+    if (!submissionId) return
+    let interval: ReturnType<typeof setInterval> | undefined
+    const poll = () => { interval = setInterval(() => checkSubmissionStatus(submissionId), 2000) }
+    if (typeof EventSource === 'undefined') { poll(); return () => clearInterval(interval) }
+    const source = new EventSource(`${API_URL}/submissions/${submissionId}/events`)
+    source.addEventListener('progress', (e) => {
+      const progress = JSON.parse((e as MessageEvent).data)
+      setSubmissionStatus(`RUNNING (${progress.testsCompleted}/${progress.testsTotal})`)
+    })
+    source.addEventListener('status', (e) => {
+      const status = JSON.parse((e as MessageEvent).data).status
+      setSubmissionStatus(status)
+      if (FINAL(status)) { source.close(); setSubmissionId(null) }
+    })
+    source.onerror = () => { source.close(); if (!interval) poll() }
+    return () => { source.close(); clearInterval(interval) }
   }, [submissionId])
   const fetchContest = async () => {
     try {
@@ -53,26 +96,32 @@ export default function ContestPage() {
       setLeaderboard(res.data)
     } catch (err) { console.error('Error fetching leaderboard:', err) }
   }
-  const handleSubmit = async () => {
+  const handleSubmit = async (sampleOnly: boolean) => {
     if (!selectedProblem || !username) return
     setSubmissionStatus('Submitting...')
     try {
-      const res = await axios.post(`${API_URL}/submissions`, { username, contestId, problemId: selectedProblem.id, code, language })
+      const res = await axios.post(`${API_URL}/submissions`, { username, contestId, problemId: selectedProblem.id, code, language, sampleOnly })
       setSubmissionId(res.data.submissionId)
       setSubmissionStatus('Pending')
-    } catch (err) { setSubmissionStatus('Error submitting'); console.error(err) }
+    } catch (err) {
+      if (axios.isAxiosError(err) && err.response?.status === 429) {
+        setSubmissionStatus(`Judge busy, retry in ${err.response.headers['retry-after'] || 'a few'} seconds`)
+      } else { setSubmissionStatus('Error submitting') }
+      console.error(err)
+    }
   }
   const checkSubmissionStatus = async (id: number) => {
     try {
       const res = await axios.get(`${API_URL}/submissions/${id}`)
       setSubmissionStatus(res.data.status)
-      if (['ACCEPTED', 'WRONG_ANSWER', 'RUNTIME_ERROR', 'TIME_LIMIT_EXCEEDED'].includes(res.data.status)) {
+      if (FINAL(res.data.status)) {
         setSubmissionId(null)
-        fetchLeaderboard()
+        if (typeof EventSource === 'undefined') fetchLeaderboard()
       }
     } catch (err) { console.error('Error checking status:', err) }
   }
   const getStatusColor = (status: string) => {
+    if (status.startsWith('RUNNING')) return 'text-yellow-600'
     switch(status) {
       case 'ACCEPTED': return 'text-green-600'
       case 'WRONG_ANSWER': return 'text-red-600'
@@ -102,7 +151,7 @@ export default function ContestPage() {
                 {leaderboard.slice(0, 10).map((entry) => (
                   <div key={entry.username} className="flex justify-between text-sm bg-gray-50 p-2 rounded">
                     <span>#{entry.rank} {entry.username}</span>
-                    <span className="font-semibold">{entry.score}</span>
+                    <span><span className="font-semibold">{entry.score}</span> <span className="text-gray-500">({entry.penalty})</span></span>
                   </div>
                 ))}
               </div>
@@ -111,7 +160,8 @@ export default function ContestPage() {
           <div className="lg:col-span-2 space-y-4">
             {selectedProblem && (
               <div className="bg-white rounded-lg shadow p-6">
-                <h2 className="text-2xl font-bold mb-4">{selectedProblem.title}</h2>
+                <h2 className="text-2xl font-bold mb-1">{selectedProblem.title}</h2>
+                <p className="text-sm text-gray-500 mb-4">Time limit: {selectedProblem.timeLimitMs / 1000} s · Memory limit: {selectedProblem.memoryLimitMb} MB</p>
                 <div className="prose max-w-none">
                   <p className="mb-4">{selectedProblem.statement}</p>
                   <h3 className="font-bold">Input Format</h3>
@@ -143,7 +193,10 @@ export default function ContestPage() {
                 <MonacoEditor height="100%" language={language === 'cpp' ? 'cpp' : language} value={code} onChange={(value) => setCode(value || '')} theme="vs-light" options={{ minimap: { enabled: false }, fontSize: 14 }} />
               </div>
               <div className="mt-4 flex justify-between items-center">
-                <button onClick={handleSubmit} className="bg-indigo-600 text-white px-6 py-2 rounded hover:bg-indigo-700 transition" disabled={!selectedProblem}>Submit Code</button>
+                <div className="space-x-2">
+                  <button onClick={() => handleSubmit(true)} className="border border-indigo-600 text-indigo-600 px-6 py-2 rounded hover:bg-indigo-50 transition" disabled={!selectedProblem}>Run Samples</button>
+                  <button onClick={() => handleSubmit(false)} className="bg-indigo-600 text-white px-6 py-2 rounded hover:bg-indigo-700 transition" disabled={!selectedProblem}>Submit Code</button>
+                </div>
                 {submissionStatus && <div className={`font-semibold ${getStatusColor(submissionStatus)}`}>Status: {submissionStatus}</div>}
               </div>
             </div>